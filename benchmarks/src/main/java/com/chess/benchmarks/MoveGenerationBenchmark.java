@@ -0,0 +1,59 @@
+package com.chess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.Position;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * move generation and attack detection, the work behind Board.getValidMoves and Board.isPieceEndangered
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({"start", "kiwipete", "middlegame", "endgame"})
+    private String position;
+
+    private Position board;
+    private final int[] buffer = new int[Position.MAX_MOVES];
+    private int king;
+
+    @Setup
+    public void setUp() {
+        board = Fen.parse(Positions.fen(position), new Evaluation());
+        king = board.getKingSquare(board.getSideToMove());
+    }
+
+    @Benchmark
+    public int legalMoves() {
+        return board.generateLegalMoves(buffer, 0);
+    }
+
+    @Benchmark
+    public int pseudoLegalMoves() {
+        return board.generateMoves(buffer, 0);
+    }
+
+    @Benchmark
+    public boolean kingEndangered() {
+        return board.isAttacked(king, board.getSideToMove() ^ 1);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.chess.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.Position;
+import com.chess.engine.San;
+import com.chess.model.Difficulty;
+import com.chess.model.PieceValues;
+import com.chess.model.Setting;
+import com.chess.root.Game;
+import com.chess.root.GameListener;
+import com.chess.root.PgnParser;
+import com.chess.root.moves.Move;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * PGN move text tokenizing, SAN move decoding and the replay of an imported game on the board
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PgnBenchmark {
+
+    // Fischer - Spassky, 1992, game 29
+    static final String GAME = "1. e4 e5 2. Nf3 Nc6 3. Bb5 a6 {This opening is called the Ruy Lopez.}\n"
+            + "4. Ba4 Nf6 5. O-O Be7 6. Re1 b5 7. Bb3 d6 8. c3 O-O 9. h3 Nb8 10. d4 Nbd7\n"
+            + "11. c4 c6 12. cxb5 axb5 13. Nc3 Bb7 14. Bg5 b4 15. Nb1 h6 16. Bh4 c5 17. dxe5\n"
+            + "Nxe4 18. Bxe7 Qxe7 19. exd6 Qf6 20. Nbd2 Nxd6 21. Nc4 Nxc4 22. Bxc4 Nb6\n"
+            + "23. Ne5 Rae8 24. Bxf7+ Rxf7 25. Nxf7 Rxe1+ 26. Qxe1 Kxf7 27. Qe3 Qg5 28. Qxg5\n"
+            + "hxg5 29. b3 Ke6 30. a3 Kd6 31. axb4 cxb4 32. Ra5 Nd5 33. f3 Bc8 34. Kf2 Bf5\n"
+            + "35. Ra7 g6 36. Ra6+ Kc5 37. Ke1 Nf4 38. g3 Nxh3 39. Kd2 Kb5 40. Rd6 Kc5 41. Ra6\n"
+            + "Nf2 42. g4 Bd3 43. Re6 1/2-1/2";
+
+    private final Position position = new Position(new Evaluation());
+    private final Position start = Fen.parse(Fen.START, new Evaluation());
+    private final int[] legal = new int[Position.MAX_MOVES];
+    // every move is looked up among the game moves around it, about the size of a legal move list
+    private static final int CANDIDATES = 32;
+
+    private final GameListener listener = new GameListener() {
+    };
+    private List<String> moves;
+    private Setting settings;
+    private List<List<Move>> candidates;
+
+    @Setup
+    public void setUp() {
+        moves = PgnParser.parseMoves(GAME);
+        settings = new Setting(true, com.chess.model.Mode.MANUAL_ONLY, PieceValues.HARD, Difficulty.RANDOM);
+        settings.addPgn(GAME);
+        List<Move> history = new Game(listener, settings).getHistory();
+        candidates = new ArrayList<>(history.size());
+        for (int i = 0; i < history.size(); i++) {
+            int from = Math.max(0, Math.min(i - CANDIDATES / 2, history.size() - CANDIDATES));
+            candidates.add(new ArrayList<>(history.subList(from, Math.min(history.size(), from + CANDIDATES))));
+        }
+    }
+
+    @Benchmark
+    public List<String> parseMoves() {
+        return PgnParser.parseMoves(GAME);
+    }
+
+    @Benchmark
+    public int decodeMoves() {
+        int sum = 0;
+        for (String move : moves) {
+            sum += San.decode(move);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long replayMoves() {
+        position.copyFrom(start);
+        for (String move : moves) {
+            position.makeMove(San.find(position, move, legal));
+        }
+        return position.getKey();
+    }
+
+    @Benchmark
+    public int parseMove() {
+        int sum = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            sum += PgnParser.parseMove(moves.get(i), candidates.get(i)).getCode();
+        }
+        return sum;
+    }
+
+    /**
+     * a new game replaying the imported moves through Board.executePgn, board setup included
+     */
+    @Benchmark
+    public Game executePgn() {
+        return new Game(listener, settings);
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.chess.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.chess.engine.Fen;
+import com.chess.engine.Position;
+import com.chess.engine.Search;
+import com.chess.engine.TranspositionTable;
+import com.chess.model.PieceValues;
+import com.chess.root.Board;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * rating of every root move at a fixed depth, the work behind Board.rateMovesAlphaBeta
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"start", "kiwipete", "middlegame", "endgame"})
+    private String position;
+
+    @Param({"1", "2", "3"})
+    private int depth;
+
+    private Search search;
+    private final TranspositionTable table = new TranspositionTable(1);
+    private final int[] rootMoves = new int[Position.MAX_MOVES];
+    private int rootCount;
+
+    @Setup
+    public void setUp() {
+        // piece values and square tables of the game, so the search sees the same tapered evaluation
+        Position board = Fen.parse(Positions.fen(position), Board.createEvaluation(PieceValues.HARD));
+        search = new Search(board, table);
+        rootCount = board.generateLegalMoves(rootMoves, 0);
+    }
+
+    /**
+     * every invocation starts with an empty table, otherwise later invocations only read earlier results
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public int rateRootMoves() {
+        int best = -Search.INFINITY;
+        for (int i = 0; i < rootCount; i++) {
+            best = Math.max(best, search.rateMove(rootMoves[i], depth));
+        }
+        return best;
+    }
+
+}
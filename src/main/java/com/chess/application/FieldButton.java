@@ -1,7 +1,15 @@
 package com.chess.application;
 
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
 import com.chess.root.Board;
 import com.chess.root.Field;
+import com.chess.root.FieldView;
+import com.chess.root.pieces.Piece;
+import javafx.application.Platform;
 import javafx.scene.Cursor;
 import javafx.scene.control.Button;
 import javafx.scene.effect.Lighting;
@@ -11,10 +19,11 @@ import javafx.scene.input.MouseEvent;
 /**
  * Class for the piece field.
  */
-public class FieldButton extends Button {
+public class FieldButton extends Button implements FieldView {
 
     private final Board board;
     private Field field;
+    private static final Logger LOG = Logger.getLogger(String.class.getName());
 
     /**
      * Constructor for the field button.
@@ -53,10 +62,61 @@ public class FieldButton extends Button {
     private void addEvents() {
         setOnMouseClicked((MouseEvent event) -> {
             if (board.isPlayMode() && event.getButton() == MouseButton.PRIMARY) {
-                board.performManualMove(event);
+                board.performManualMove(field);
             }
             event.consume();
         });
     }
 
+    // ---------------------------------- FIELD VIEW ----------------------------------
+
+    /**
+     * shows piece, waits for the gui when called from another thread so moves are drawn in order
+     * @param piece to show
+     */
+    @Override
+    public void showPiece(Piece piece) {
+        if (Platform.isFxApplicationThread()) {
+            setSymbol(piece);
+
+            // seems to be necessary...
+            Platform.runLater(() -> setText(""));
+        } else {
+            try {
+                FutureTask<Void> updateUITask = new FutureTask<>(() -> setSymbol(piece), null);
+                Platform.runLater(updateUITask);
+                updateUITask.get();
+            } catch (InterruptedException | ExecutionException e) {
+                LOG.log(Level.SEVERE, e.getMessage());
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void setSymbol(Piece piece) {
+        setGraphic(PieceImages.createSymbol(piece));
+        getGraphic().setOpacity(1.0);
+    }
+
+    @Override
+    public void clear() {
+        Platform.runLater(() -> {
+            setGraphic(null);
+            setText("");
+        });
+    }
+
+    @Override
+    public void fadePiece() {
+        if (getGraphic() != null) {
+            getGraphic().setOpacity(0.3);
+        }
+    }
+
+    @Override
+    public void setHintOpacity(double opacity) {
+        setOpacity(opacity);
+        Platform.runLater(() -> setOpacity(opacity));
+    }
+
 }
@@ -2,16 +2,27 @@ package com.chess.application;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 
 import com.chess.Loader;
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.Position;
+import com.chess.engine.San;
 import com.chess.model.Setting;
+import com.chess.pgn.PositionDatabase;
+import com.chess.root.Board;
+import com.chess.root.Field;
 import com.chess.root.Game;
+import com.chess.root.GameListener;
 import com.chess.root.PgnParser;
 import com.chess.root.Player;
 import javafx.animation.KeyFrame;
@@ -31,18 +42,24 @@ import javafx.scene.input.ClipboardContent;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
+import javafx.stage.FileChooser;
 import javafx.util.Duration;
 
 
 /**
  * Class representing the controller of the game.
  */
-public final class GameController extends SceneController implements Initializable {
+public final class GameController extends SceneController implements Initializable, GameListener {
 
     private SettingsController settingsController;
     private long startTime;
     private String gameStatusText;
     private final String[] alpha = {"a", "b", "c", "d", "e", "f", "g", "h"};
+    // database built next to a PGN file for the opening explorer
+    private static final String EXPLORER_SUFFIX = ".positions";
+    private static final double EXPLORER_WIDTH = 220;
+    private volatile PositionDatabase explorer;
+    private final Evaluation explorerEvaluation = new Evaluation();
 
     // ---------------------------------- MENU ----------------------------------
 
@@ -52,6 +69,9 @@ public final class GameController extends SceneController implements Initializab
     @FXML
     private MenuItem editModeStopItem;
 
+    @FXML
+    private MenuItem explorerCloseItem;
+
 
     // ---------------------------------- GUI ----------------------------------
 
@@ -96,6 +116,16 @@ public final class GameController extends SceneController implements Initializab
     @FXML
     private Label moveCounter;
 
+    // opening explorer
+    @FXML
+    private VBox explorerPanel;
+
+    @FXML
+    private Label explorerSummary;
+
+    @FXML
+    private ListView<String> explorerMoves;
+
     // ---------------------------------- INITIALIZATION ----------------------------------
 
     /**
@@ -105,7 +135,6 @@ public final class GameController extends SceneController implements Initializab
      */
     public void loadGame(SettingsController init, Setting settings) {
         this.settings = settings;
-        settings.setGrid(boardGrid);
         this.stage = init.getStage();
         this.chess = init.getMainAccess();
         this.settingsController = init;
@@ -118,6 +147,31 @@ public final class GameController extends SceneController implements Initializab
 
     }
 
+    /**
+     * creates a button for every board field and adds it to the board grid
+     * @param board of the new game
+     */
+    @Override
+    public void boardCreated(Board board) {
+        for (int row = 0; row < 8; row++) {
+            for (int column = 0; column < 8; column++) {
+                Field field = board.getField(column, row);
+                FieldButton button = new FieldButton(board, field);
+                field.setView(button);
+
+                // handle appearance on gui
+                if (field.isBlack()) {
+                    button.getStyleClass().add("button-black");
+                } else {
+                    button.getStyleClass().add("button-white");
+                }
+
+                boardGrid.add(button, column, row);
+            }
+        }
+        board.render();
+    }
+
     // ---------------------------------- INITIALIZATION HELPERS ----------------------------------
 
 
@@ -187,6 +241,111 @@ public final class GameController extends SceneController implements Initializab
         for (Player player : players) {
             player.getThread().requestStop();
         }
+        game.getBoard().shutdown();
+        closeExplorer();
+    }
+
+    // ---------------------------------- EXPLORER HANDLING ----------------------------------
+
+    @FXML
+    private void handleOpenExplorer() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Open games");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("PGN games", "*.pgn"),
+                new FileChooser.ExtensionFilter("Position database", "*" + EXPLORER_SUFFIX));
+        File file = fileChooser.showOpenDialog(getStage());
+        if (file == null) {
+            return;
+        }
+        showExplorer(true);
+        explorerSummary.setText("loading " + file.getName() + " ...");
+        explorerMoves.getItems().clear();
+        // building the database of a large collection takes a while
+        Thread loader = new Thread(() -> openExplorer(file.toPath()), "explorer-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @FXML
+    private void handleCloseExplorer() {
+        closeExplorer();
+        showExplorer(false);
+    }
+
+    /**
+     * opens a position database, a PGN file gets its database built or rebuilt next to it when needed
+     */
+    private void openExplorer(Path file) {
+        try {
+            Path database = file;
+            if (!file.getFileName().toString().endsWith(EXPLORER_SUFFIX)) {
+                database = file.resolveSibling(file.getFileName() + EXPLORER_SUFFIX);
+                if (!Files.exists(database) || Files.getLastModifiedTime(database).compareTo(Files.getLastModifiedTime(file)) < 0) {
+                    PositionDatabase.build(file, database, PositionDatabase.DEFAULT_PLIES);
+                }
+            }
+            PositionDatabase opened = PositionDatabase.open(database);
+            Platform.runLater(() -> {
+                closeExplorer();
+                explorer = opened;
+                positionChanged(game.getBoard());
+            });
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, e.getMessage());
+            Platform.runLater(() -> explorerSummary.setText("can't open " + file.getFileName()));
+        }
+    }
+
+    private void closeExplorer() {
+        PositionDatabase database = explorer;
+        explorer = null;
+        if (database != null) {
+            try {
+                database.close();
+            } catch (IOException e) {
+                LOG.log(Level.WARNING, e.getMessage());
+            }
+        }
+    }
+
+    private void showExplorer(boolean on) {
+        explorerPanel.setVisible(on);
+        explorerPanel.setManaged(on);
+        explorerCloseItem.setDisable(!on);
+        double width = 566 + (on ? EXPLORER_WIDTH : 0);
+        getStage().setMinWidth(width);
+        getStage().setWidth(width);
+    }
+
+    /**
+     * shows games and next moves of the new position in the explorer
+     * @param board with the new position
+     */
+    @Override
+    public void positionChanged(Board board) {
+        PositionDatabase database = explorer;
+        if (database == null) {
+            return;
+        }
+        PositionDatabase.Stats stats = database.lookup(board.getZobristKey());
+        String summary;
+        List<String> lines = new ArrayList<>();
+        if (stats.getGames() == 0) {
+            summary = "position not in " + database.getGames() + " games";
+        } else {
+            long played = Math.max(1, stats.getWhiteWins() + stats.getDraws() + stats.getBlackWins());
+            summary = String.format("%d games%nwhite %.0f%%  draw %.0f%%  black %.0f%%", stats.getGames(),
+                    stats.getWhiteWins() * 100.0 / played, stats.getDraws() * 100.0 / played, stats.getBlackWins() * 100.0 / played);
+            Position position = Fen.parse(board.getFen(), explorerEvaluation);
+            for (PositionDatabase.Stats next : stats.getNext()) {
+                lines.add(String.format("%-7s %8d %4.0f%%", San.format(position, next.getMove()), next.getGames(), next.getWhiteScore()));
+            }
+        }
+        Platform.runLater(() -> {
+            explorerSummary.setText(summary);
+            explorerMoves.getItems().setAll(lines);
+        });
     }
 
     // ---------------------------------- EXPORT HANDLING ----------------------------------
@@ -369,6 +528,7 @@ public final class GameController extends SceneController implements Initializab
      * sets start game button active
      * @param activate game button?
      */
+    @Override
     public void setGoBut(boolean activate) {
         goButton.setDisable(!activate);
     }
@@ -385,6 +545,7 @@ public final class GameController extends SceneController implements Initializab
      * sets back button active
      * @param activate back button?
      */
+    @Override
     public void setBackBut(boolean activate) {
         stepBackButton.setDisable(!activate);
     }
@@ -394,6 +555,7 @@ public final class GameController extends SceneController implements Initializab
      * sets forward button active
      * @param activate forward button?
      */
+    @Override
     public void setForwardBut(boolean activate) {
         stepForwardButton.setDisable(!activate);
     }
@@ -401,6 +563,7 @@ public final class GameController extends SceneController implements Initializab
     /**
      * sets focus on start button
      */
+    @Override
     public void requestFocusGo() {
         goButton.requestFocus();
     }
@@ -408,6 +571,7 @@ public final class GameController extends SceneController implements Initializab
     /**
      * sets focus on a stop button
      */
+    @Override
     public void requestFocusStop() {
         stopButton.requestFocus();
     }
@@ -415,6 +579,7 @@ public final class GameController extends SceneController implements Initializab
     /**
      * sets focus on a back button
      */
+    @Override
     public void requestFocusBack() {
         stepBackButton.requestFocus();
     }
@@ -422,6 +587,7 @@ public final class GameController extends SceneController implements Initializab
     /**
      * sets focus on a forward button
      */
+    @Override
     public void requestFocusForward() {
         stepForwardButton.requestFocus();
     }
@@ -432,6 +598,7 @@ public final class GameController extends SceneController implements Initializab
      * displays which player turn
      * @param game
      */
+    @Override
     public void displayPlayer(Game game) {
         if (game != null && game.getPlayer() != null) {
             setDisplay(game.getPlayer().toString() + "'s turn");
@@ -442,6 +609,7 @@ public final class GameController extends SceneController implements Initializab
      * sets game status
      * @param display text to be displayed
      */
+    @Override
     public void setDisplay(String display) {
         gameStatusText = display;
         renderDisplay();
@@ -450,6 +618,7 @@ public final class GameController extends SceneController implements Initializab
     /**
      * redraws display
      */
+    @Override
     public void renderDisplay() {
         if (Platform.isFxApplicationThread()) {
             statusTextLabel.setText(gameStatusText);
@@ -462,6 +631,7 @@ public final class GameController extends SceneController implements Initializab
      * updates move counter display
      * @param counter moves count as a string
      */
+    @Override
     public void updateMoveCounter(String counter) {
         Platform.runLater(() -> moveCounter.setText(counter));
     }
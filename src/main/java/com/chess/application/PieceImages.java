@@ -0,0 +1,36 @@
+package com.chess.application;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.chess.Loader;
+import com.chess.root.pieces.Piece;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+
+/**
+ * loads piece images once and hands out views of them
+ */
+public final class PieceImages {
+
+    private static final int IMGSIZE = 60;
+    private static final Map<String, Image> IMAGES = new ConcurrentHashMap<>();
+
+    private PieceImages() {
+    }
+
+    /**
+     * creates visual representation of a figure
+     * @param piece to show
+     * @return new image view of the figure
+     */
+    public static ImageView createSymbol(Piece piece) {
+        String path = "com/chess/resources/img/" + piece.getName() + (piece.isBlack() ? "_b.png" : "_w.png");
+        Image image = IMAGES.computeIfAbsent(path, p -> new Image(Loader.load(p).toString()));
+        ImageView img = new ImageView(image);
+        img.setFitWidth(IMGSIZE);
+        img.setFitHeight(IMGSIZE);
+        return img;
+    }
+
+}
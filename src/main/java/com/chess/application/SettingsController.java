@@ -1,15 +1,22 @@
 package com.chess.application;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.util.AbstractList;
 import java.util.Optional;
 import java.util.ResourceBundle;
+import java.util.logging.Level;
 
 import com.chess.Loader;
+import com.chess.engine.PolyglotBook;
 import com.chess.model.Difficulty;
 import com.chess.model.PieceValues;
 import com.chess.model.Mode;
 import com.chess.model.Setting;
+import com.chess.pgn.PgnIndex;
+import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Button;
@@ -19,6 +26,8 @@ import javafx.scene.control.ButtonType;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.RadioButton;
 import javafx.scene.control.Slider;
 import javafx.scene.control.TextArea;
@@ -73,6 +82,13 @@ public class SettingsController extends SceneController implements Initializable
     @FXML
     private Label loadLabel;
 
+    // opening book
+    @FXML
+    private Button bookButton;
+
+    @FXML
+    private Label bookLabel;
+
     @FXML
     private Button startButton;
 
@@ -129,10 +145,14 @@ public class SettingsController extends SceneController implements Initializable
         if (inputMode.contentEquals(Mode.MANUAL_ONLY.get())) {
             difficultyLabel.setVisible(false);
             difficultyChoice.setVisible(false);
+            bookButton.setVisible(false);
+            bookLabel.setVisible(false);
             super.settings.setMode(Mode.MANUAL_ONLY);
         } else {
             difficultyLabel.setVisible(true);
             difficultyChoice.setVisible(true);
+            bookButton.setVisible(true);
+            bookLabel.setVisible(true);
             super.settings.setMode(Mode.MANUAL_VS_AI);
         }
     }
@@ -220,8 +240,7 @@ public class SettingsController extends SceneController implements Initializable
 
             if (it.contentEquals(pgnFileName.getText())) {
                 final File uploadFile = pngUploadFile;
-                super.settings.addPgn(uploadFile);
-                loadLabel.setText(it);
+                loadPgnFile(uploadFile, it);
             } else if (pgnCode.getText() != null && it.startsWith("[")) {
                 super.settings.addPgn(it);
                 loadLabel.setText("LOADED");
@@ -235,6 +254,103 @@ public class SettingsController extends SceneController implements Initializable
         }
     }
 
+    /**
+     * loads a game of a pgn file, from a file with several games the player picks one by the tags of its index
+     * @param file pgn file
+     * @param name file name shown after loading
+     */
+    private void loadPgnFile(File file, String name) {
+        int game;
+        int size;
+        try (PgnIndex index = PgnIndex.open(file.toPath())) {
+            size = index.size();
+            game = size > 1 ? pickGame(index, name) : 0;
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "SYSTEM: pgn file can't be indexed", e);
+            loadLabel.setText("NOPE! try again.");
+            return;
+        }
+        if (size == 0 || game < 0) {
+            loadLabel.setText("NOPE! try again.");
+            return;
+        }
+        super.settings.addPgn(file, game);
+        loadLabel.setText(size > 1 ? name + " #" + (game + 1) : name);
+    }
+
+    /**
+     * shows the games of an index, only the tags of the listed rows are read so files of any size open at once
+     * @param index of a pgn file with several games
+     * @param name file name
+     * @return index of the picked game, -1 if none was picked
+     */
+    private int pickGame(PgnIndex index, String name) {
+        Dialog<Integer> dialog = new Dialog<>();
+        dialog.setTitle("Pick game");
+        dialog.setHeaderText(name + " holds " + index.size() + " games, pick one.");
+        dialog.setResizable(true);
+        dialog.getDialogPane().setMinWidth(500);
+        dialog.getDialogPane().getStylesheets().add(Loader.load("com/chess/resources/application.css").toExternalForm());
+        Stage dialogStage = (Stage) dialog.getDialogPane().getScene().getWindow();
+        dialogStage.getIcons().add(new Image(Loader.load("com/chess/resources/img/go.png").toString()));
+
+        int size = index.size();
+        ListView<Integer> games = new ListView<>(FXCollections.observableList(new AbstractList<>() {
+            @Override
+            public Integer get(int i) {
+                return i;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        }));
+        games.setCellFactory(view -> new ListCell<>() {
+            @Override
+            protected void updateItem(Integer game, boolean empty) {
+                super.updateItem(game, empty);
+                setText(empty || game == null ? null : describeGame(index, game));
+            }
+        });
+        games.setPrefSize(480, 300);
+        games.getSelectionModel().select(0);
+        dialog.getDialogPane().setContent(games);
+
+        ButtonType buttonOk = new ButtonType("OK", ButtonData.OK_DONE);
+        ButtonType buttonCancel = new ButtonType("Cancel", ButtonData.CANCEL_CLOSE);
+        dialog.getDialogPane().getButtonTypes().addAll(buttonOk, buttonCancel);
+        ButtonBar buttonBar = (ButtonBar) dialog.getDialogPane().lookup(".button-bar");
+        buttonBar.getButtons().forEach(b -> b.getStyleClass().add("gui-control-default"));
+        games.setOnMouseClicked(e -> {
+            if (e.getClickCount() == 2) {
+                ((Button) dialog.getDialogPane().lookupButton(buttonOk)).fire();
+            }
+        });
+        dialog.setResultConverter(b -> b == buttonOk ? games.getSelectionModel().getSelectedIndex() : -1);
+
+        settingsPane.setEffect(new GaussianBlur(2));
+        int game = dialog.showAndWait().orElse(-1);
+        settingsPane.setEffect(null);
+        return game;
+    }
+
+    private static String describeGame(PgnIndex index, int game) {
+        StringBuilder text = new StringBuilder().append(game + 1).append(". ");
+        try {
+            // White, Black, Result, Date, Event
+            String[] tags = index.getTags(game);
+            text.append(tags[0].isEmpty() ? "?" : tags[0]).append(" - ").append(tags[1].isEmpty() ? "?" : tags[1])
+                    .append("  ").append(tags[2]);
+            if (!tags[4].isEmpty() || !tags[3].isEmpty()) {
+                text.append("  (").append(tags[4]).append(tags[4].isEmpty() || tags[3].isEmpty() ? "" : ", ").append(tags[3]).append(')');
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, e.getMessage());
+        }
+        return text.append("  ").append((index.getPlyCount(game) + 1) / 2).append(" moves").toString();
+    }
+
     private String convertResult(ButtonType b, ButtonType buttonOk, ButtonType buttonUpload, Label pgnFileName, TextArea pgnCode) {
         if (b == buttonOk) {
             if (!pgnFileName.getText().contentEquals("no file selected")) {
@@ -255,6 +371,36 @@ public class SettingsController extends SceneController implements Initializable
         return null;
     }
 
+    // ---------------------------------- BOOK CHOICE HANDLING ----------------------------------
+
+    /**
+     * lets the player pick a Polyglot opening book for the AI, the difficulty decides how many plies it is played
+     */
+    @FXML
+    private void handleBookButton() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Choose opening book");
+        fileChooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Polyglot book", "*.bin"),
+                new FileChooser.ExtensionFilter("All files", "*.*"));
+        File file = fileChooser.showOpenDialog(stage);
+        if (file == null) {
+            return;
+        }
+        try {
+            if (Files.size(file.toPath()) < PolyglotBook.ENTRY_BYTES) {
+                bookLabel.setText("NOPE! empty book.");
+                return;
+            }
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "SYSTEM: opening book can't be read", e);
+            bookLabel.setText("NOPE! try again.");
+            return;
+        }
+        super.settings.setBook(file.toPath());
+        bookLabel.setText(file.getName());
+    }
+
     // ---------------------------------- START GAME HANDLING ----------------------------------
 
     @FXML
@@ -298,6 +444,7 @@ public class SettingsController extends SceneController implements Initializable
         startButton.getStyleClass().add("button-start");
         modeChoice.getStyleClass().add(guiControl);
         loadButton.getStyleClass().add(guiControl);
+        bookButton.getStyleClass().add(guiControl);
         startButton.getStyleClass().add(guiControl);
     }
 
@@ -0,0 +1,153 @@
+package com.chess.engine;
+
+/**
+ * precomputed attack tables and square helpers for 64-bit boards, square 0 is a1 and square 63 is h8
+ */
+public final class Bitboards {
+
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    // ray directions: north, east, north-east, north-west (positive) and south, west, south-west, south-east (negative)
+    private static final int[][] DIRS = {{0, 1}, {1, 0}, {1, 1}, {-1, 1}, {0, -1}, {-1, 0}, {-1, -1}, {1, -1}};
+    private static final long[][] RAYS = new long[8][64];
+
+    private static final int NORTH = 0;
+    private static final int EAST = 1;
+    private static final int NORTH_EAST = 2;
+    private static final int NORTH_WEST = 3;
+    private static final int SOUTH = 4;
+    private static final int WEST = 5;
+    private static final int SOUTH_WEST = 6;
+    private static final int SOUTH_EAST = 7;
+
+    static {
+        int[][] knightSteps = {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}};
+        for (int sq = 0; sq < 64; sq++) {
+            int file = file(sq);
+            int rank = rank(sq);
+            for (int[] step : knightSteps) {
+                KNIGHT[sq] |= bit(file + step[0], rank + step[1]);
+            }
+            for (int[] dir : DIRS) {
+                KING[sq] |= bit(file + dir[0], rank + dir[1]);
+            }
+            PAWN[Position.WHITE][sq] = bit(file - 1, rank + 1) | bit(file + 1, rank + 1);
+            PAWN[Position.BLACK][sq] = bit(file - 1, rank - 1) | bit(file + 1, rank - 1);
+            for (int d = 0; d < DIRS.length; d++) {
+                int f = file + DIRS[d][0];
+                int r = rank + DIRS[d][1];
+                while (f >= 0 && f < 8 && r >= 0 && r < 8) {
+                    RAYS[d][sq] |= 1L << square(f, r);
+                    f += DIRS[d][0];
+                    r += DIRS[d][1];
+                }
+            }
+        }
+    }
+
+    private Bitboards() {
+    }
+
+    // ---------------------------------- SQUARE HELPERS ----------------------------------
+
+    /**
+     * @param file 0 (a) to 7 (h)
+     * @param rank 0 (first rank) to 7 (eighth rank)
+     * @return square index
+     */
+    public static int square(int file, int rank) {
+        return rank * 8 + file;
+    }
+
+    public static int file(int square) {
+        return square & 7;
+    }
+
+    public static int rank(int square) {
+        return square >>> 3;
+    }
+
+    /**
+     * converts board column and row (row 0 is the eighth rank, as used by fields) to a square index
+     * @param column field column
+     * @param row field row
+     * @return square index
+     */
+    public static int fromField(int column, int row) {
+        return square(column, 7 - row);
+    }
+
+    /**
+     * @param square index
+     * @return field row of a square, row 0 is the eighth rank
+     */
+    public static int toRow(int square) {
+        return 7 - rank(square);
+    }
+
+    private static long bit(int file, int rank) {
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) {
+            return 0L;
+        }
+        return 1L << square(file, rank);
+    }
+
+    // ---------------------------------- ATTACKS ----------------------------------
+
+    public static long knightAttacks(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long kingAttacks(int square) {
+        return KING[square];
+    }
+
+    /**
+     * @param color of the attacking pawn
+     * @param square where the pawn stands
+     * @return squares attacked by the pawn
+     */
+    public static long pawnAttacks(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    public static long rookAttacks(int square, long occupied) {
+        return positiveRay(NORTH, square, occupied) | positiveRay(EAST, square, occupied)
+                | negativeRay(SOUTH, square, occupied) | negativeRay(WEST, square, occupied);
+    }
+
+    public static long bishopAttacks(int square, long occupied) {
+        return positiveRay(NORTH_EAST, square, occupied) | positiveRay(NORTH_WEST, square, occupied)
+                | negativeRay(SOUTH_WEST, square, occupied) | negativeRay(SOUTH_EAST, square, occupied);
+    }
+
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    private static long positiveRay(int dir, int square, long occupied) {
+        long ray = RAYS[dir][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAYS[dir][Long.numberOfTrailingZeros(blockers)];
+        }
+        return ray;
+    }
+
+    private static long negativeRay(int dir, int square, long occupied) {
+        long ray = RAYS[dir][square];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            ray ^= RAYS[dir][63 - Long.numberOfLeadingZeros(blockers)];
+        }
+        return ray;
+    }
+
+}
@@ -0,0 +1,98 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * cache of static evaluations by position key, leaves reached on several paths are evaluated once. An entry is a
+ * single long, the upper half of the key and the score, so threads share the cache without locks and never read a
+ * torn entry.
+ */
+public final class EvalCache {
+
+    /**
+     * returned by {@link #probe} when the key is not stored, no evaluation reaches it
+     */
+    public static final int MISS = Integer.MIN_VALUE;
+
+    private static final long KEY_MASK = 0xFFFFFFFF00000000L;
+
+    private final long[] table;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param megabytes cache size, rounded down to a power of two number of entries
+     */
+    public EvalCache(int megabytes) {
+        long entries = Long.highestOneBit(Math.max(1L, (long) megabytes * 1024 * 1024 / Long.BYTES));
+        entries = Math.min(entries, Integer.highestOneBit(Integer.MAX_VALUE));
+        table = new long[(int) entries];
+        mask = (int) entries - 1;
+    }
+
+    /**
+     * @param key Zobrist key of the position
+     * @return stored score or {@link #MISS}
+     */
+    public int probe(long key) {
+        long entry = table[(int) key & mask];
+        if ((entry & KEY_MASK) == (key & KEY_MASK) && entry != 0) {
+            hits.increment();
+            return (int) entry;
+        }
+        misses.increment();
+        return MISS;
+    }
+
+    /**
+     * @param key Zobrist key of the position
+     * @param score static evaluation of the position
+     */
+    public void store(long key, int score) {
+        table[(int) key & mask] = (key & KEY_MASK) | (score & 0xFFFFFFFFL);
+    }
+
+    /**
+     * removes all entries, counters are kept
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    // ---------------------------------- STATISTICS ----------------------------------
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return share of probes that found a score in percent, 0 before the first probe
+     */
+    public int getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (int) (h * 100 / total);
+    }
+
+    /**
+     * sets hit and miss counters back to 0
+     */
+    public void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * @return size in bytes
+     */
+    public long size() {
+        return (long) table.length * Long.BYTES;
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.chess.engine;
+
+/**
+ * piece ratings and piece square tables used to score a position. Every piece has a middlegame and an endgame table,
+ * a position blends both by its game phase, see {@link #phase(int)}.
+ */
+public final class Evaluation {
+
+    /**
+     * game phase of the initial position, reached again or exceeded only by promotions
+     */
+    public static final int MAX_PHASE = 24;
+
+    // phase weight per piece type, minor pieces 1, rooks 2, queens 4
+    private static final int[] PHASE = {0, 1, 1, 2, 4, 0};
+
+    private final int[] values = new int[12];
+    private final int[][] tables = new int[12][64];
+    private final int[][] endTables = new int[12][64];
+
+    /**
+     * creates an empty evaluation, values and tables are filled in by {@link #setPiece}
+     */
+    public Evaluation() {
+        // filled in piece by piece
+    }
+
+    /**
+     * sets rating and square table of a piece, the table is used in the endgame as well until
+     * {@link #setEndTable} replaces it there
+     * @param piece piece index, see {@link Position#piece(int, int)}
+     * @param value base rating of the piece
+     * @param table square table in field layout, row 0 is the eighth rank
+     */
+    public void setPiece(int piece, int value, int[][] table) {
+        values[piece] = value;
+        copyTable(table, tables[piece]);
+        copyTable(table, endTables[piece]);
+    }
+
+    /**
+     * sets endgame square table of a piece
+     * @param piece piece index
+     * @param table square table in field layout, row 0 is the eighth rank
+     */
+    public void setEndTable(int piece, int[][] table) {
+        copyTable(table, endTables[piece]);
+    }
+
+    private static void copyTable(int[][] table, int[] target) {
+        for (int sq = 0; sq < 64; sq++) {
+            target[sq] = table[Bitboards.toRow(sq)][Bitboards.file(sq)];
+        }
+    }
+
+    // ---------------------------------- GETTERS ----------------------------------
+
+    public int value(int piece) {
+        return values[piece];
+    }
+
+    /**
+     * @param piece piece index
+     * @param square where the piece stands
+     * @return rating plus middlegame square bonus of the piece, the term a position adds up while pieces move
+     */
+    public int score(int piece, int square) {
+        return values[piece] + tables[piece][square];
+    }
+
+    /**
+     * @param piece piece index
+     * @param square where the piece stands
+     * @return rating plus endgame square bonus of the piece
+     */
+    public int endScore(int piece, int square) {
+        return values[piece] + endTables[piece][square];
+    }
+
+    /**
+     * @param piece piece index
+     * @return share of the piece in the game phase, {@link #MAX_PHASE} with all pieces on the board and 0 with
+     * kings and pawns only
+     */
+    public static int phase(int piece) {
+        return PHASE[Position.type(piece)];
+    }
+
+}
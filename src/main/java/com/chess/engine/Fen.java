@@ -0,0 +1,186 @@
+package com.chess.engine;
+
+/**
+ * Forsyth-Edwards notation reader and writer
+ */
+public final class Fen {
+
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECES = "pnbrqk";
+    private static final long BACK_RANKS = 0xFF000000000000FFL;
+
+    private Fen() {
+    }
+
+    /**
+     * sets up position described by a FEN string
+     * @param fen position in FEN, halfmove and fullmove counters may be left out
+     * @param evaluation used to score the position
+     * @return new position
+     */
+    public static Position parse(String fen, Evaluation evaluation) {
+        String[] parts = fen.trim().split("\\s+");
+        if (parts.length < 4) {
+            throw new IllegalArgumentException("incomplete FEN: " + fen);
+        }
+        Position position = new Position(evaluation);
+
+        int rank = 7;
+        int file = 0;
+        for (char c : parts[0].toCharArray()) {
+            if (c == '/') {
+                if (file != 8 || rank == 0) {
+                    throw new IllegalArgumentException("rank without 8 files in FEN: " + fen);
+                }
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > 8) {
+                    throw new IllegalArgumentException("rank without 8 files in FEN: " + fen);
+                }
+            } else {
+                int type = PIECES.indexOf(Character.toLowerCase(c));
+                if (type < 0 || file > 7) {
+                    throw new IllegalArgumentException("invalid piece placement in FEN: " + fen);
+                }
+                int color = Character.isUpperCase(c) ? Position.WHITE : Position.BLACK;
+                position.put(Position.piece(type, color), Bitboards.square(file, rank));
+                file++;
+            }
+        }
+        if (file != 8 || rank != 0) {
+            throw new IllegalArgumentException("piece placement without 8 ranks of 8 files in FEN: " + fen);
+        }
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            if (Long.bitCount(position.getBitboard(Position.piece(Position.KING, color))) != 1) {
+                throw new IllegalArgumentException("FEN needs one king per side: " + fen);
+            }
+        }
+        long pawns = position.getBitboard(Position.piece(Position.PAWN, Position.WHITE))
+                | position.getBitboard(Position.piece(Position.PAWN, Position.BLACK));
+        if ((pawns & BACK_RANKS) != 0) {
+            throw new IllegalArgumentException("pawn on the first or last rank in FEN: " + fen);
+        }
+
+        switch (parts[1]) {
+            case "w" -> position.setSideToMove(Position.WHITE);
+            case "b" -> position.setSideToMove(Position.BLACK);
+            default -> throw new IllegalArgumentException("invalid side to move in FEN: " + fen);
+        }
+
+        int castling = 0;
+        for (char c : parts[2].equals("-") ? new char[0] : parts[2].toCharArray()) {
+            switch (c) {
+                case 'K' -> castling |= Position.WHITE_KING_SIDE;
+                case 'Q' -> castling |= Position.WHITE_QUEEN_SIDE;
+                case 'k' -> castling |= Position.BLACK_KING_SIDE;
+                case 'q' -> castling |= Position.BLACK_QUEEN_SIDE;
+                default -> throw new IllegalArgumentException("invalid castling rights in FEN: " + fen);
+            }
+        }
+        position.setCastling(castling);
+
+        int side = position.getSideToMove();
+        if (position.isAttacked(position.getKingSquare(side ^ 1), side)) {
+            throw new IllegalArgumentException("side not to move is in check in FEN: " + fen);
+        }
+        if (!parts[3].equals("-")) {
+            int square = parseSquare(parts[3]);
+            if (!isEnPassantSquare(position, square)) {
+                throw new IllegalArgumentException("invalid en passant square in FEN: " + fen);
+            }
+            position.setEnPassantSquare(square);
+        }
+        if (parts.length > 4) {
+            position.setHalfmoves(Integer.parseInt(parts[4]));
+        }
+        if (parts.length > 5) {
+            position.setFullmoves(Integer.parseInt(parts[5]));
+        }
+        return position;
+    }
+
+    /**
+     * @return is the square the one a pawn of the side not to move just skipped with a double push
+     */
+    private static boolean isEnPassantSquare(Position position, int square) {
+        int side = position.getSideToMove();
+        int rank = Bitboards.rank(square);
+        if (side == Position.WHITE ? rank != 5 : rank != 2) {
+            return false;
+        }
+        // the pawn stands in front of the square seen from its side, the square it came from is empty
+        int pawn = side == Position.WHITE ? square - 8 : square + 8;
+        int origin = side == Position.WHITE ? square + 8 : square - 8;
+        return position.getPiece(pawn) == Position.piece(Position.PAWN, side ^ 1)
+                && position.getPiece(square) == Position.NONE && position.getPiece(origin) == Position.NONE;
+    }
+
+    /**
+     * describes a position as FEN string
+     * @param position to describe
+     * @return position in FEN including halfmove and fullmove counters
+     */
+    public static String format(Position position) {
+        StringBuilder fen = new StringBuilder(90);
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = position.getPiece(Bitboards.square(file, rank));
+                if (piece == Position.NONE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                char c = PIECES.charAt(Position.type(piece));
+                fen.append(Position.color(piece) == Position.WHITE ? Character.toUpperCase(c) : c);
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (rank > 0) {
+                fen.append('/');
+            }
+        }
+
+        fen.append(position.getSideToMove() == Position.WHITE ? " w " : " b ");
+
+        int castling = position.getCastling();
+        if (castling == 0) {
+            fen.append('-');
+        } else {
+            appendIf(fen, castling, Position.WHITE_KING_SIDE, 'K');
+            appendIf(fen, castling, Position.WHITE_QUEEN_SIDE, 'Q');
+            appendIf(fen, castling, Position.BLACK_KING_SIDE, 'k');
+            appendIf(fen, castling, Position.BLACK_QUEEN_SIDE, 'q');
+        }
+
+        int ep = position.getEnPassantSquare();
+        fen.append(' ').append(ep == Position.NONE ? "-" : MoveCode.squareName(ep));
+        fen.append(' ').append(position.getHalfmoves()).append(' ').append(position.getFullmoves());
+        return fen.toString();
+    }
+
+    private static void appendIf(StringBuilder fen, int castling, int right, char c) {
+        if ((castling & right) != 0) {
+            fen.append(c);
+        }
+    }
+
+    /**
+     * @param s square in chess notation, e.g. e3
+     * @return square index
+     */
+    public static int parseSquare(String s) {
+        if (s.length() != 2 || s.charAt(0) < 'a' || s.charAt(0) > 'h' || s.charAt(1) < '1' || s.charAt(1) > '8') {
+            throw new IllegalArgumentException("invalid square: " + s);
+        }
+        return Bitboards.square(s.charAt(0) - 'a', s.charAt(1) - '1');
+    }
+
+}
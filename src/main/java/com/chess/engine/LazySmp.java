@@ -0,0 +1,155 @@
+package com.chess.engine;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <a href="https://www.chessprogramming.org/Lazy_SMP">Lazy SMP</a>, helper threads search the same root moves on
+ * their own position copies with shifted depths and move order. They only share the lock-free transposition table
+ * and evaluation cache, so the main search finds more positions already rated and reports the result.
+ */
+public final class LazySmp {
+
+    private static final Logger LOG = Logger.getLogger(String.class.getName());
+
+    private final Position position;
+    private final TranspositionTable table;
+    private final EvalCache evalCache;
+    private final Search main;
+    private final Search[] helpers;
+    private final ExecutorService executor;
+
+    /**
+     * @param position searched position, it is restored after every search
+     * @param table transposition table shared by all threads
+     * @param threads number of searching threads including the calling one
+     */
+    public LazySmp(Position position, TranspositionTable table, int threads) {
+        this(position, table, null, threads);
+    }
+
+    /**
+     * @param position searched position, it is restored after every search
+     * @param table transposition table shared by all threads
+     * @param evalCache evaluation cache shared by all threads, null for none
+     * @param threads number of searching threads including the calling one
+     */
+    public LazySmp(Position position, TranspositionTable table, EvalCache evalCache, int threads) {
+        this.position = position;
+        this.table = table;
+        this.evalCache = evalCache;
+        this.main = new Search(position, table, evalCache);
+        int count = Math.max(0, threads - 1);
+        helpers = new Search[count];
+        for (int i = 0; i < count; i++) {
+            // own position copy per helper, synchronized with the root at the start of every search
+            helpers[i] = new Search(new Position(position), table, evalCache);
+        }
+        // idle helper threads end after a minute, so discarded boards don't keep them
+        executor = count == 0 ? null : Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * rates root moves like {@link Search#rateMoves}, helpers run until the main search is done
+     * @param moves packed root moves
+     * @param count number of root moves
+     * @param ratings receives rating of every root move from the view of the side to move
+     * @param maxDepth maximum number of plies searched after the root moves
+     * @param millis time limit
+     * @param maxNodes node limit of the main search
+     * @return depth of the last finished iteration of the main search
+     */
+    public int rateMoves(int[] moves, int count, int[] ratings, int maxDepth, long millis, long maxNodes) {
+        table.newSearch();
+        if (count == 0) {
+            return main.rateMoves(moves, count, ratings, maxDepth, millis, maxNodes);
+        }
+        Future<?>[] running = new Future<?>[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = helpers[i];
+            helper.getPosition().copyFrom(position);
+            helper.newSearch();
+            int[] order = rotate(moves, count, i + 1);
+            // every second helper starts one ply deeper, so threads are spread over neighbouring depths
+            int startDepth = (i & 1) == 0 ? 1 : 0;
+            running[i] = executor.submit(() -> helper.help(order, count, startDepth, maxDepth));
+        }
+        int depth = main.rateMoves(moves, count, ratings, maxDepth, millis, maxNodes);
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                LOG.log(Level.SEVERE, e.getMessage());
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                LOG.log(Level.SEVERE, "SYSTEM: search helper failed", e.getCause());
+            }
+        }
+        return depth;
+    }
+
+    private static int[] rotate(int[] moves, int count, int shift) {
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = moves[(i + shift) % count];
+        }
+        return order;
+    }
+
+    /**
+     * makes running search return its last finished iteration
+     */
+    public void stop() {
+        main.stop();
+    }
+
+    /**
+     * @param listener informed after every finished iteration of the main search, null for none
+     */
+    public void setListener(SearchListener listener) {
+        main.setListener(listener);
+    }
+
+    /**
+     * @param move root move the line starts with
+     * @param maxLength maximum number of moves
+     * @return expected line of play after the last search
+     */
+    public int[] getPrincipalVariation(int move, int maxLength) {
+        return main.getPrincipalVariation(move, maxLength);
+    }
+
+    /**
+     * @return number of positions visited by the main search
+     */
+    public long getNodes() {
+        return main.getNodes();
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public EvalCache getEvalCache() {
+        return evalCache;
+    }
+
+    /**
+     * @return number of searching threads including the calling one
+     */
+    public int getThreads() {
+        return helpers.length + 1;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.chess.engine;
+
+/**
+ * moves packed into a single int so move lists are plain int arrays:
+ * <pre>
+ * bits  0 -  5  start square
+ * bits  6 - 11  target square
+ * bits 12 - 14  flag
+ * bits 15 - 17  promotion piece type
+ * bits 18 - 21  moving piece
+ * bits 22 - 25  captured piece + 1, 0 if nothing is taken
+ * </pre>
+ */
+public final class MoveCode {
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int CASTLING = 2;
+    public static final int EN_PASSANT = 3;
+    public static final int PROMOTION = 4;
+
+    public static final int NONE = 0;
+
+    private MoveCode() {
+    }
+
+    /**
+     * @param from start square
+     * @param to target square
+     * @param flag move flag
+     * @param piece moving piece index
+     * @param captured captured piece index or {@link Position#NONE}
+     * @return packed move
+     */
+    public static int encode(int from, int to, int flag, int piece, int captured) {
+        return from | (to << 6) | (flag << 12) | (piece << 18) | ((captured + 1) << 22);
+    }
+
+    /**
+     * @param from start square
+     * @param to target square
+     * @param piece moving pawn
+     * @param captured captured piece index or {@link Position#NONE}
+     * @param type piece type the pawn is promoted to
+     * @return packed move
+     */
+    public static int encodePromotion(int from, int to, int piece, int captured, int type) {
+        return encode(from, to, PROMOTION, piece, captured) | (type << 15);
+    }
+
+    // ---------------------------------- GETTERS ----------------------------------
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int flag(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    public static int promotion(int move) {
+        return (move >>> 15) & 7;
+    }
+
+    public static int piece(int move) {
+        return (move >>> 18) & 15;
+    }
+
+    /**
+     * @param move packed move
+     * @return captured piece index or {@link Position#NONE}
+     */
+    public static int captured(int move) {
+        return ((move >>> 22) & 15) - 1;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & (15 << 22)) != 0;
+    }
+
+    /**
+     * @param move packed move
+     * @return move in coordinate notation, e.g. e2e4 or e7e8q
+     */
+    public static String toString(int move) {
+        String s = squareName(from(move)) + squareName(to(move));
+        if (flag(move) == PROMOTION) {
+            s += "pnbrqk".charAt(promotion(move));
+        }
+        return s;
+    }
+
+    /**
+     * @param square index
+     * @return square in chess notation, e.g. e4
+     */
+    public static String squareName(int square) {
+        return "" + (char) ('a' + Bitboards.file(square)) + (char) ('1' + Bitboards.rank(square));
+    }
+
+}
@@ -0,0 +1,193 @@
+package com.chess.engine;
+
+/**
+ * hands out the moves of one search ply in stages, best guesses first so cutoffs happen early:
+ * hash move, captures by MVV-LVA, killer moves, remaining quiet moves by history.
+ * Moves of a stage are scored when the stage is reached and picked by selection, so a cutoff
+ * after the first moves does not pay for sorting the rest.
+ */
+final class MovePicker {
+
+    private static final int HASH = 0;
+    private static final int CAPTURES = 1;
+    private static final int KILLERS = 2;
+    private static final int QUIETS = 3;
+    private static final int DONE = 4;
+
+    private final int[] moves = new int[Position.MAX_MOVES];
+    private final int[] scores = new int[Position.MAX_MOVES];
+    private Evaluation evaluation;
+    private int[][] history;
+    private int stage;
+    private int hashMove;
+    private int killer1;
+    private int killer2;
+    private int index;
+    private int killerSlot;
+    private int captureEnd;
+    private int count;
+    private boolean capturesOnly;
+
+    /**
+     * prepares picking of all pseudo legal moves
+     * @param position to pick moves in
+     * @param hashMove best move stored in the transposition table or {@link MoveCode#NONE}
+     * @param killers killer moves of the ply
+     * @param history butterfly history of side to move, indexed by start and target square
+     */
+    void init(Position position, int hashMove, int[] killers, int[][] history) {
+        this.evaluation = position.getEvaluation();
+        this.history = history;
+        this.killer1 = killers[0];
+        this.killer2 = killers[1];
+        this.capturesOnly = false;
+        count = position.generateMoves(moves, 0);
+        // captures and queen promotions to the front
+        captureEnd = 0;
+        this.hashMove = MoveCode.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (move == hashMove) {
+                this.hashMove = move;
+            }
+            if (isTactical(move)) {
+                moves[i] = moves[captureEnd];
+                moves[captureEnd++] = move;
+            }
+        }
+        stage = HASH;
+    }
+
+    /**
+     * prepares picking of captures and queen promotions only, used by the quiescence search
+     * @param position to pick moves in
+     */
+    void initCaptures(Position position) {
+        this.evaluation = position.getEvaluation();
+        this.capturesOnly = true;
+        hashMove = MoveCode.NONE;
+        count = position.generateCaptures(moves, 0);
+        captureEnd = count;
+        stage = HASH;
+    }
+
+    /**
+     * @return next move or {@link MoveCode#NONE} when all moves were handed out
+     */
+    @SuppressWarnings("fallthrough")
+    int next() {
+        switch (stage) {
+            case HASH:
+                stage = CAPTURES;
+                index = 0;
+                for (int i = 0; i < captureEnd; i++) {
+                    scores[i] = mvvLva(evaluation, moves[i]);
+                }
+                if (hashMove != MoveCode.NONE) {
+                    return hashMove;
+                }
+                // fall through
+            case CAPTURES:
+                while (index < captureEnd) {
+                    int move = pick(index++, captureEnd);
+                    if (move != hashMove) {
+                        return move;
+                    }
+                }
+                if (capturesOnly) {
+                    stage = DONE;
+                    return MoveCode.NONE;
+                }
+                stage = KILLERS;
+                killerSlot = 0;
+                // fall through
+            case KILLERS:
+                while (killerSlot < 2) {
+                    int killer = killerSlot++ == 0 ? killer1 : killer2;
+                    if (takeQuiet(killer)) {
+                        return killer;
+                    }
+                }
+                stage = QUIETS;
+                for (int i = index; i < count; i++) {
+                    scores[i] = history[MoveCode.from(moves[i])][MoveCode.to(moves[i])];
+                }
+                // fall through
+            case QUIETS:
+                while (index < count) {
+                    int move = pick(index++, count);
+                    if (move != hashMove) {
+                        return move;
+                    }
+                }
+                stage = DONE;
+                // fall through
+            default:
+                return MoveCode.NONE;
+        }
+    }
+
+    /**
+     * moves a killer to the next quiet index if it is a move of this position
+     */
+    private boolean takeQuiet(int killer) {
+        if (killer == MoveCode.NONE || killer == hashMove) {
+            return false;
+        }
+        for (int i = index; i < count; i++) {
+            if (moves[i] == killer) {
+                moves[i] = moves[index];
+                moves[index++] = killer;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int pick(int from, int end) {
+        int best = from;
+        for (int i = from + 1; i < end; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        int score = scores[best];
+        moves[best] = moves[from];
+        scores[best] = scores[from];
+        moves[from] = move;
+        scores[from] = score;
+        return move;
+    }
+
+    /**
+     * @return move list of the picker, free to use while the picker is not in use
+     */
+    int[] buffer() {
+        return moves;
+    }
+
+    /**
+     * @param move packed move
+     * @return is move a capture or queen promotion
+     */
+    static boolean isTactical(int move) {
+        return MoveCode.isCapture(move) || (MoveCode.flag(move) == MoveCode.PROMOTION && MoveCode.promotion(move) == Position.QUEEN);
+    }
+
+    /**
+     * most valuable victim, least valuable attacker (<a href="https://www.chessprogramming.org/MVV-LVA">MVV-LVA</a>)
+     * @param evaluation piece ratings
+     * @param move capture or promotion
+     * @return order score, higher is better
+     */
+    static int mvvLva(Evaluation evaluation, int move) {
+        int captured = MoveCode.captured(move);
+        int victim = captured == Position.NONE ? 0 : evaluation.value(captured);
+        if (MoveCode.flag(move) == MoveCode.PROMOTION) {
+            victim += evaluation.value(Position.QUEEN);
+        }
+        return victim * 16384 - evaluation.value(MoveCode.piece(move));
+    }
+
+}
@@ -0,0 +1,117 @@
+package com.chess.engine;
+
+/**
+ * <a href="https://www.chessprogramming.org/Pawn_Structure">pawn structure</a> terms added to the piece square
+ * tables: doubled, isolated, backward and passed pawns and the pawn shield in front of each king. The terms depend
+ * on pawns and kings only, so positions cache them in a {@link PawnTable}.
+ * <p>
+ * Bonuses are given in hundredths of a pawn and scaled by the pawn rating of the evaluation.
+ */
+public final class PawnStructure {
+
+    private static final int DOUBLED_MIDDLE = -10;
+    private static final int DOUBLED_END = -20;
+    private static final int ISOLATED_MIDDLE = -10;
+    private static final int ISOLATED_END = -15;
+    private static final int BACKWARD_MIDDLE = -8;
+    private static final int BACKWARD_END = -10;
+    // by rank seen from the pawn's side, the square tables already reward advanced pawns
+    private static final int[] PASSED_MIDDLE = {0, 5, 10, 15, 25, 40, 60, 0};
+    private static final int[] PASSED_END = {0, 10, 15, 25, 40, 65, 100, 0};
+    // own pawns one and two ranks in front of the king, middlegame only
+    private static final int SHIELD_NEAR = 10;
+    private static final int SHIELD_FAR = 5;
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    // squares in front of a pawn on its own and the adjacent files
+    private static final long[][] PASSED = new long[2][64];
+    // squares on the adjacent files level with or behind a pawn
+    private static final long[][] SUPPORT = new long[2][64];
+    private static final long[][] SHIELD_NEAR_MASK = new long[2][64];
+    private static final long[][] SHIELD_FAR_MASK = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++) {
+            FILES[file] = Bitboards.FILE_A << file;
+        }
+        for (int file = 0; file < 8; file++) {
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0L) | (file < 7 ? FILES[file + 1] : 0L);
+        }
+        for (int sq = 0; sq < 64; sq++) {
+            int file = Bitboards.file(sq);
+            int rank = Bitboards.rank(sq);
+            long span = FILES[file] | ADJACENT_FILES[file];
+            for (int r = 0; r < 8; r++) {
+                long row = Bitboards.RANK_1 << (8 * r);
+                if (r > rank) {
+                    PASSED[Position.WHITE][sq] |= span & row;
+                    SUPPORT[Position.BLACK][sq] |= ADJACENT_FILES[file] & row;
+                } else if (r < rank) {
+                    PASSED[Position.BLACK][sq] |= span & row;
+                    SUPPORT[Position.WHITE][sq] |= ADJACENT_FILES[file] & row;
+                } else {
+                    SUPPORT[Position.WHITE][sq] |= ADJACENT_FILES[file] & row;
+                    SUPPORT[Position.BLACK][sq] |= ADJACENT_FILES[file] & row;
+                }
+            }
+            SHIELD_NEAR_MASK[Position.WHITE][sq] = rank < 7 ? span & Bitboards.RANK_1 << (8 * (rank + 1)) : 0L;
+            SHIELD_FAR_MASK[Position.WHITE][sq] = rank < 6 ? span & Bitboards.RANK_1 << (8 * (rank + 2)) : 0L;
+            SHIELD_NEAR_MASK[Position.BLACK][sq] = rank > 0 ? span & Bitboards.RANK_1 << (8 * (rank - 1)) : 0L;
+            SHIELD_FAR_MASK[Position.BLACK][sq] = rank > 1 ? span & Bitboards.RANK_1 << (8 * (rank - 2)) : 0L;
+        }
+    }
+
+    private PawnStructure() {
+    }
+
+    /**
+     * scores pawns and king shields of both sides from scratch
+     * @param position to score
+     * @return middlegame and endgame score from the view of white, packed by {@link PawnTable#pack}
+     */
+    public static long evaluate(Position position) {
+        int middle = 0;
+        int end = 0;
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            int sign = color == Position.WHITE ? 1 : -1;
+            long own = position.getBitboard(Position.piece(Position.PAWN, color));
+            long enemy = position.getBitboard(Position.piece(Position.PAWN, color ^ 1));
+            long pawns = own;
+            while (pawns != 0) {
+                int sq = Long.numberOfTrailingZeros(pawns);
+                pawns &= pawns - 1;
+                int file = Bitboards.file(sq);
+                if (Long.bitCount(own & FILES[file]) > 1) {
+                    // counted for every pawn of the file, so two pawns cost twice
+                    middle += sign * DOUBLED_MIDDLE;
+                    end += sign * DOUBLED_END;
+                }
+                if ((own & ADJACENT_FILES[file]) == 0) {
+                    middle += sign * ISOLATED_MIDDLE;
+                    end += sign * ISOLATED_END;
+                } else if ((own & SUPPORT[color][sq]) == 0) {
+                    // no pawn can defend it and its stop square is held by an enemy pawn
+                    int stop = color == Position.WHITE ? sq + 8 : sq - 8;
+                    if (stop >= 0 && stop < 64 && (Bitboards.pawnAttacks(color, stop) & enemy) != 0) {
+                        middle += sign * BACKWARD_MIDDLE;
+                        end += sign * BACKWARD_END;
+                    }
+                }
+                if ((enemy & PASSED[color][sq]) == 0 && (own & FILES[file] & PASSED[color][sq]) == 0) {
+                    int rank = color == Position.WHITE ? Bitboards.rank(sq) : 7 - Bitboards.rank(sq);
+                    middle += sign * PASSED_MIDDLE[rank];
+                    end += sign * PASSED_END[rank];
+                }
+            }
+            int king = position.getKingSquare(color);
+            if (king != Position.NONE) {
+                middle += sign * (SHIELD_NEAR * Long.bitCount(own & SHIELD_NEAR_MASK[color][king])
+                        + SHIELD_FAR * Long.bitCount(own & SHIELD_FAR_MASK[color][king]));
+            }
+        }
+        int pawn = position.getEvaluation().value(Position.PAWN);
+        return PawnTable.pack(middle * pawn / 100, end * pawn / 100);
+    }
+
+}
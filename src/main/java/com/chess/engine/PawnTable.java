@@ -0,0 +1,79 @@
+package com.chess.engine;
+
+/**
+ * <a href="https://www.chessprogramming.org/Pawn_Hash_Table">pawn hash table</a> caching {@link PawnStructure}
+ * scores by the pawn key of a position. Pawns move rarely in a search tree, so most lookups hit. Entries are two
+ * longs, the key XOR the data and the data, like in the {@link TranspositionTable}; a torn entry is a miss.
+ * <pre>
+ * data bits  0 - 23  middlegame score
+ * data bits 24 - 47  endgame score
+ * data bit       48  entry is set
+ * </pre>
+ */
+public final class PawnTable {
+
+    /**
+     * returned by {@link #probe} when the key is not stored
+     */
+    public static final long MISS = 0;
+
+    public static final int DEFAULT_ENTRIES = 1 << 14;
+
+    private static final long SET = 1L << 48;
+
+    private final long[] table;
+    private final int mask;
+
+    /**
+     * @param entries table size, rounded down to a power of two
+     */
+    public PawnTable(int entries) {
+        int size = Integer.highestOneBit(Math.max(1, Math.min(entries, 1 << 29)));
+        table = new long[size * 2];
+        mask = size - 1;
+    }
+
+    /**
+     * @param key pawn key of the position
+     * @return stored data or {@link #MISS}
+     */
+    public long probe(long key) {
+        int i = index(key);
+        long data = table[i + 1];
+        return (table[i] ^ data) == key ? data : MISS;
+    }
+
+    /**
+     * @param key pawn key of the position
+     * @param data scores packed by {@link #pack}
+     */
+    public void store(long key, long data) {
+        int i = index(key);
+        table[i] = key ^ data;
+        table[i + 1] = data;
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ (key >>> 32)) & mask) * 2;
+    }
+
+    // ---------------------------------- DATA ACCESS ----------------------------------
+
+    /**
+     * @param middle middlegame score, 24 bit signed
+     * @param end endgame score, 24 bit signed
+     * @return data to store, never {@link #MISS}
+     */
+    public static long pack(int middle, int end) {
+        return (middle & 0xFFFFFFL) | ((end & 0xFFFFFFL) << 24) | SET;
+    }
+
+    public static int middle(long data) {
+        return (int) ((data << 40) >> 40);
+    }
+
+    public static int end(long data) {
+        return (int) ((data << 16) >> 40);
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * <a href="https://www.chessprogramming.org/Perft">Perft</a> driver, counts leaf nodes of the legal move tree to
+ * check move generation against known results and to measure its speed.
+ * <p>
+ * Usage: {@code Perft depth [fen]} prints the node count of every root move (divide), of the start position if no
+ * FEN is given. The standard perft positions are checked by {@code PerftTest}.
+ */
+public final class Perft {
+
+    private static final int MAX_DEPTH = 32;
+
+    private final Position position;
+    private final int[][] buffers = new int[MAX_DEPTH][Position.MAX_MOVES];
+
+    /**
+     * @param position to count moves from, it is restored after every count
+     */
+    public Perft(Position position) {
+        this.position = position;
+    }
+
+    /**
+     * @param depth number of plies
+     * @return number of leaf nodes
+     */
+    public long count(int depth) {
+        return depth <= 0 ? 1 : count(depth, 0);
+    }
+
+    private long count(int depth, int ply) {
+        int[] moves = buffers[ply];
+        int n = position.generateMoves(moves, 0);
+        long nodes = 0;
+        for (int i = 0; i < n; i++) {
+            if (position.makeLegalMove(moves[i])) {
+                nodes += depth == 1 ? 1 : count(depth - 1, ply + 1);
+                position.unmakeMove();
+            }
+        }
+        return nodes;
+    }
+
+    /**
+     * prints node count of every root move
+     * @param depth number of plies
+     * @return total number of leaf nodes
+     */
+    public long divide(int depth) {
+        int[] moves = buffers[0];
+        int n = position.generateLegalMoves(moves, 0);
+        long total = 0;
+        for (int i = 0; i < n; i++) {
+            int move = moves[i];
+            position.makeMove(move);
+            long nodes = depth <= 1 ? 1 : count(depth - 1, 1);
+            position.unmakeMove();
+            total += nodes;
+            System.out.println(MoveCode.toString(move) + ": " + nodes);
+        }
+        System.out.println("total: " + total);
+        return total;
+    }
+
+    // ---------------------------------- COMMAND LINE ----------------------------------
+
+    /**
+     * runs a divide of one position
+     * @param args depth and optional FEN
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("usage: Perft depth [fen]");
+            System.exit(2);
+        }
+        int depth = Integer.parseInt(args[0]);
+        String fen = args.length > 1 ? String.join(" ", Arrays.copyOfRange(args, 1, args.length)) : Fen.START;
+        long start = System.nanoTime();
+        long nodes = new Perft(Fen.parse(fen, new Evaluation())).divide(depth);
+        report(nodes, System.nanoTime() - start);
+    }
+
+    private static void report(long nodes, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%d nodes in %.3f s, %.0f nodes/s", nodes, seconds, nodes / Math.max(seconds, 1e-9)));
+    }
+
+}
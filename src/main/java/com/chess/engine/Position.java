@@ -0,0 +1,674 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * chess position held in bitboards, one 64-bit board per piece type and color plus occupancy masks.
+ * Moves are packed ints (see {@link MoveCode}) and are made and unmade in place, so the search never allocates.
+ */
+public final class Position {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int NONE = -1;
+
+    public static final int WHITE_KING_SIDE = 1;
+    public static final int WHITE_QUEEN_SIDE = 2;
+    public static final int BLACK_KING_SIDE = 4;
+    public static final int BLACK_QUEEN_SIDE = 8;
+
+    public static final int MAX_MOVES = 256;
+
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[0] &= ~WHITE_QUEEN_SIDE;
+        CASTLING_MASK[7] &= ~WHITE_KING_SIDE;
+        CASTLING_MASK[4] &= ~(WHITE_KING_SIDE | WHITE_QUEEN_SIDE);
+        CASTLING_MASK[56] &= ~BLACK_QUEEN_SIDE;
+        CASTLING_MASK[63] &= ~BLACK_KING_SIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KING_SIDE | BLACK_QUEEN_SIDE);
+    }
+
+    private final Evaluation evaluation;
+    private final long[] bitboards = new long[12];
+    private final long[] occupancy = new long[2];
+    private long occupied;
+    private final int[] squares = new int[64];
+    private int side = WHITE;
+    private int castling;
+    private int epSquare = NONE;
+    private int halfmoves;
+    private int fullmoves = 1;
+    // running sums of piece ratings and middlegame and endgame square bonuses per color and of the game phase,
+    // kept up to date by put and remove
+    private final int[] material = new int[2];
+    private final int[] endMaterial = new int[2];
+    private int phase;
+    private long key = Zobrist.castling(0);
+    // en passant part of the key, only set while the en passant capture is possible
+    private long epKey;
+    // key of pawns and kings only, see PawnStructure
+    private long pawnKey;
+    // created on the first evaluation, so positions that are never evaluated don't allocate it
+    private PawnTable pawnTable;
+
+    // undo stack, one entry per made move
+    private int[] moveStack = new int[128];
+    private int[] stateStack = new int[128];
+    private long[] keyStack = new long[128];
+    private int ply;
+
+    /**
+     * creates an empty position
+     * @param evaluation piece ratings and square tables used to score the position
+     */
+    public Position(Evaluation evaluation) {
+        this.evaluation = evaluation;
+        Arrays.fill(squares, NONE);
+    }
+
+    /**
+     * copies a position including its move history, so searches can run on their own copy in other threads
+     * @param other position to copy, evaluation is shared
+     */
+    public Position(Position other) {
+        this(other.evaluation);
+        copyFrom(other);
+    }
+
+    /**
+     * overwrites this position with another one of the same evaluation, reusing the arrays
+     * @param other position to copy including its move history
+     */
+    public void copyFrom(Position other) {
+        System.arraycopy(other.bitboards, 0, bitboards, 0, bitboards.length);
+        System.arraycopy(other.occupancy, 0, occupancy, 0, occupancy.length);
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+        System.arraycopy(other.material, 0, material, 0, material.length);
+        System.arraycopy(other.endMaterial, 0, endMaterial, 0, endMaterial.length);
+        phase = other.phase;
+        occupied = other.occupied;
+        side = other.side;
+        castling = other.castling;
+        epSquare = other.epSquare;
+        halfmoves = other.halfmoves;
+        fullmoves = other.fullmoves;
+        key = other.key;
+        pawnKey = other.pawnKey;
+        epKey = other.epKey;
+        if (moveStack.length < other.moveStack.length) {
+            moveStack = new int[other.moveStack.length];
+            stateStack = new int[other.moveStack.length];
+            keyStack = new long[other.moveStack.length];
+        }
+        System.arraycopy(other.moveStack, 0, moveStack, 0, other.ply);
+        System.arraycopy(other.stateStack, 0, stateStack, 0, other.ply);
+        System.arraycopy(other.keyStack, 0, keyStack, 0, other.ply);
+        ply = other.ply;
+    }
+
+    // ---------------------------------- PIECE ENCODING ----------------------------------
+
+    /**
+     * @param type piece type, PAWN to KING
+     * @param color WHITE or BLACK
+     * @return piece index 0 - 11
+     */
+    public static int piece(int type, int color) {
+        return color * 6 + type;
+    }
+
+    public static int type(int piece) {
+        return piece % 6;
+    }
+
+    public static int color(int piece) {
+        return piece / 6;
+    }
+
+    // ---------------------------------- SETUP ----------------------------------
+
+    /**
+     * places piece on an empty square
+     * @param piece piece index
+     * @param square where piece is placed
+     */
+    public void put(int piece, int square) {
+        long b = 1L << square;
+        squares[square] = piece;
+        bitboards[piece] |= b;
+        occupancy[color(piece)] |= b;
+        occupied |= b;
+        material[color(piece)] += evaluation.score(piece, square);
+        endMaterial[color(piece)] += evaluation.endScore(piece, square);
+        phase += Evaluation.phase(piece);
+        key ^= Zobrist.piece(piece, square);
+        if (type(piece) == PAWN || type(piece) == KING) {
+            pawnKey ^= Zobrist.piece(piece, square);
+        }
+    }
+
+    private int remove(int square) {
+        int piece = squares[square];
+        long b = ~(1L << square);
+        squares[square] = NONE;
+        bitboards[piece] &= b;
+        occupancy[color(piece)] &= b;
+        occupied &= b;
+        material[color(piece)] -= evaluation.score(piece, square);
+        endMaterial[color(piece)] -= evaluation.endScore(piece, square);
+        phase -= Evaluation.phase(piece);
+        key ^= Zobrist.piece(piece, square);
+        if (type(piece) == PAWN || type(piece) == KING) {
+            pawnKey ^= Zobrist.piece(piece, square);
+        }
+        return piece;
+    }
+
+    public void setSideToMove(int color) {
+        if (color != side) {
+            key ^= Zobrist.blackToMove();
+        }
+        side = color;
+        updateEnPassantKey();
+    }
+
+    public void setCastling(int rights) {
+        key ^= Zobrist.castling(castling) ^ Zobrist.castling(rights);
+        castling = rights;
+    }
+
+    /**
+     * sets en passant target square, pieces have to be placed before
+     * @param square behind the pawn that did a double push or NONE
+     */
+    public void setEnPassantSquare(int square) {
+        epSquare = square;
+        updateEnPassantKey();
+    }
+
+    private void updateEnPassantKey() {
+        key ^= epKey;
+        epKey = canCaptureEnPassant() ? Zobrist.enPassant(epSquare) : 0;
+        key ^= epKey;
+    }
+
+    public void setHalfmoves(int count) {
+        halfmoves = count;
+    }
+
+    public void setFullmoves(int count) {
+        fullmoves = count;
+    }
+
+    // ---------------------------------- MAKE AND UNMAKE ----------------------------------
+
+    /**
+     * executes a pseudo legal move
+     * @param move packed move, see {@link MoveCode}
+     */
+    public void makeMove(int move) {
+        int from = MoveCode.from(move);
+        int to = MoveCode.to(move);
+        int flag = MoveCode.flag(move);
+        int captured = MoveCode.captured(move);
+        int us = side;
+
+        if (ply == moveStack.length) {
+            moveStack = Arrays.copyOf(moveStack, ply * 2);
+            stateStack = Arrays.copyOf(stateStack, ply * 2);
+            keyStack = Arrays.copyOf(keyStack, ply * 2);
+        }
+
+        moveStack[ply] = move;
+        stateStack[ply] = castling | ((epSquare + 1) << 4) | (halfmoves << 11);
+        keyStack[ply] = key;
+        ply++;
+
+        if (flag == MoveCode.EN_PASSANT) {
+            remove(us == WHITE ? to - 8 : to + 8);
+        } else if (captured != NONE) {
+            remove(to);
+        }
+
+        int moving = remove(from);
+        if (flag == MoveCode.PROMOTION) {
+            put(piece(MoveCode.promotion(move), us), to);
+        } else {
+            put(moving, to);
+        }
+        if (flag == MoveCode.CASTLING) {
+            if (to > from) {
+                put(remove(from + 3), from + 1);
+            } else {
+                put(remove(from - 4), from - 1);
+            }
+        }
+
+        int rights = castling & CASTLING_MASK[from] & CASTLING_MASK[to];
+        key ^= Zobrist.castling(castling) ^ Zobrist.castling(rights) ^ Zobrist.blackToMove();
+        castling = rights;
+        halfmoves = (type(moving) == PAWN || captured != NONE) ? 0 : halfmoves + 1;
+        if (us == BLACK) {
+            fullmoves++;
+        }
+        side = us ^ 1;
+        epSquare = flag == MoveCode.DOUBLE_PUSH ? (from + to) >>> 1 : NONE;
+        updateEnPassantKey();
+    }
+
+    /**
+     * executes a pseudo legal move and takes it back if it leaves own king in check
+     * @param move packed move
+     * @return was the move legal and executed
+     */
+    public boolean makeLegalMove(int move) {
+        makeMove(move);
+        int king = getKingSquare(side ^ 1);
+        if (king != NONE && isAttacked(king, side)) {
+            unmakeMove();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * takes back last made move
+     */
+    public void unmakeMove() {
+        ply--;
+        int move = moveStack[ply];
+        int state = stateStack[ply];
+        int from = MoveCode.from(move);
+        int to = MoveCode.to(move);
+        int flag = MoveCode.flag(move);
+        int us = side ^ 1;
+
+        if (flag == MoveCode.CASTLING) {
+            if (to > from) {
+                put(remove(from + 1), from + 3);
+            } else {
+                put(remove(from - 1), from - 4);
+            }
+        }
+        int moving = remove(to);
+        put(flag == MoveCode.PROMOTION ? piece(PAWN, us) : moving, from);
+
+        int captured = MoveCode.captured(move);
+        if (captured != NONE) {
+            if (flag == MoveCode.EN_PASSANT) {
+                put(captured, us == WHITE ? to - 8 : to + 8);
+            } else {
+                put(captured, to);
+            }
+        }
+
+        castling = state & 15;
+        epSquare = ((state >>> 4) & 127) - 1;
+        halfmoves = state >>> 11;
+        if (us == BLACK) {
+            fullmoves--;
+        }
+        side = us;
+        key = keyStack[ply];
+        epKey = canCaptureEnPassant() ? Zobrist.enPassant(epSquare) : 0;
+    }
+
+    // ---------------------------------- REPETITION ----------------------------------
+
+    /**
+     * counts earlier occurrences of the current position, only positions since the last capture or pawn move
+     * can repeat and only moves made on this position are known
+     * @return how often the position was on the board before
+     */
+    public int getRepetitions() {
+        int count = 0;
+        int end = Math.max(0, ply - halfmoves);
+        for (int i = ply - 2; i >= end; i -= 2) {
+            if (keyStack[i] == key) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // ---------------------------------- MOVE GENERATION ----------------------------------
+
+    /**
+     * writes pseudo legal moves of side to move into a buffer, nothing is allocated
+     * @param buffer to write moves into, usually the preallocated buffer of the current ply
+     * @param start first free index in buffer
+     * @return index after the last written move
+     */
+    public int generateMoves(int[] buffer, int start) {
+        int us = side;
+        int them = us ^ 1;
+        long own = occupancy[us];
+        long enemy = occupancy[them];
+        int n = start;
+
+        // pawns
+        int pawn = piece(PAWN, us);
+        int forward = us == WHITE ? 8 : -8;
+        int lastRank = us == WHITE ? 7 : 0;
+        int startRank = us == WHITE ? 1 : 6;
+        long pawns = bitboards[pawn];
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            int to = from + forward;
+            if ((occupied & (1L << to)) == 0) {
+                if (Bitboards.rank(to) == lastRank) {
+                    n = addPromotions(buffer, n, from, to, pawn, NONE);
+                } else {
+                    buffer[n++] = MoveCode.encode(from, to, MoveCode.QUIET, pawn, NONE);
+                    if (Bitboards.rank(from) == startRank && (occupied & (1L << (to + forward))) == 0) {
+                        buffer[n++] = MoveCode.encode(from, to + forward, MoveCode.DOUBLE_PUSH, pawn, NONE);
+                    }
+                }
+            }
+            long attacks = Bitboards.pawnAttacks(us, from);
+            long targets = attacks & enemy;
+            while (targets != 0) {
+                to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (Bitboards.rank(to) == lastRank) {
+                    n = addPromotions(buffer, n, from, to, pawn, squares[to]);
+                } else {
+                    buffer[n++] = MoveCode.encode(from, to, MoveCode.QUIET, pawn, squares[to]);
+                }
+            }
+            if (epSquare != NONE && (attacks & (1L << epSquare)) != 0) {
+                buffer[n++] = MoveCode.encode(from, epSquare, MoveCode.EN_PASSANT, pawn, piece(PAWN, them));
+            }
+        }
+
+        // pieces
+        for (int type = KNIGHT; type <= KING; type++) {
+            int piece = piece(type, us);
+            long pieces = bitboards[piece];
+            while (pieces != 0) {
+                int from = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                long targets = attacks(type, from, occupied) & ~own;
+                while (targets != 0) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    buffer[n++] = MoveCode.encode(from, to, MoveCode.QUIET, piece, squares[to]);
+                }
+            }
+        }
+
+        return addCastlingMoves(buffer, n);
+    }
+
+    /**
+     * writes legal moves of side to move into a buffer
+     * @param buffer to write moves into
+     * @param start first free index in buffer
+     * @return index after the last written move
+     */
+    public int generateLegalMoves(int[] buffer, int start) {
+        int end = generateMoves(buffer, start);
+        int n = start;
+        for (int i = start; i < end; i++) {
+            if (makeLegalMove(buffer[i])) {
+                unmakeMove();
+                buffer[n++] = buffer[i];
+            }
+        }
+        return n;
+    }
+
+    /**
+     * writes pseudo legal captures and queen promotions of side to move into a buffer, used at the search horizon
+     * @param buffer to write moves into
+     * @param start first free index in buffer
+     * @return index after the last written move
+     */
+    public int generateCaptures(int[] buffer, int start) {
+        int us = side;
+        int them = us ^ 1;
+        long enemy = occupancy[them];
+        int n = start;
+
+        int pawn = piece(PAWN, us);
+        int forward = us == WHITE ? 8 : -8;
+        int lastRank = us == WHITE ? 7 : 0;
+        long pawns = bitboards[pawn];
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            int to = from + forward;
+            boolean promotes = Bitboards.rank(to) == lastRank;
+            if (promotes && (occupied & (1L << to)) == 0) {
+                buffer[n++] = MoveCode.encodePromotion(from, to, pawn, NONE, QUEEN);
+            }
+            long attacks = Bitboards.pawnAttacks(us, from);
+            long targets = attacks & enemy;
+            while (targets != 0) {
+                to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (promotes) {
+                    buffer[n++] = MoveCode.encodePromotion(from, to, pawn, squares[to], QUEEN);
+                } else {
+                    buffer[n++] = MoveCode.encode(from, to, MoveCode.QUIET, pawn, squares[to]);
+                }
+            }
+            if (epSquare != NONE && (attacks & (1L << epSquare)) != 0) {
+                buffer[n++] = MoveCode.encode(from, epSquare, MoveCode.EN_PASSANT, pawn, piece(PAWN, them));
+            }
+        }
+
+        for (int type = KNIGHT; type <= KING; type++) {
+            int piece = piece(type, us);
+            long pieces = bitboards[piece];
+            while (pieces != 0) {
+                int from = Long.numberOfTrailingZeros(pieces);
+                pieces &= pieces - 1;
+                long targets = attacks(type, from, occupied) & enemy;
+                while (targets != 0) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    buffer[n++] = MoveCode.encode(from, to, MoveCode.QUIET, piece, squares[to]);
+                }
+            }
+        }
+        return n;
+    }
+
+    private static int addPromotions(int[] buffer, int n, int from, int to, int pawn, int captured) {
+        buffer[n++] = MoveCode.encodePromotion(from, to, pawn, captured, QUEEN);
+        buffer[n++] = MoveCode.encodePromotion(from, to, pawn, captured, ROOK);
+        buffer[n++] = MoveCode.encodePromotion(from, to, pawn, captured, BISHOP);
+        buffer[n++] = MoveCode.encodePromotion(from, to, pawn, captured, KNIGHT);
+        return n;
+    }
+
+    private int addCastlingMoves(int[] buffer, int n) {
+        int us = side;
+        int kingSide = us == WHITE ? WHITE_KING_SIDE : BLACK_KING_SIDE;
+        int queenSide = us == WHITE ? WHITE_QUEEN_SIDE : BLACK_QUEEN_SIDE;
+        if ((castling & (kingSide | queenSide)) == 0) {
+            return n;
+        }
+        int from = us == WHITE ? 4 : 60;
+        int king = piece(KING, us);
+        int them = us ^ 1;
+        if (squares[from] != king || isAttacked(from, them)) {
+            return n;
+        }
+        if ((castling & kingSide) != 0 && squares[from + 3] == piece(ROOK, us)
+                && squares[from + 1] == NONE && squares[from + 2] == NONE
+                && !isAttacked(from + 1, them) && !isAttacked(from + 2, them)) {
+            buffer[n++] = MoveCode.encode(from, from + 2, MoveCode.CASTLING, king, NONE);
+        }
+        if ((castling & queenSide) != 0 && squares[from - 4] == piece(ROOK, us)
+                && squares[from - 1] == NONE && squares[from - 2] == NONE && squares[from - 3] == NONE
+                && !isAttacked(from - 1, them) && !isAttacked(from - 2, them)) {
+            buffer[n++] = MoveCode.encode(from, from - 2, MoveCode.CASTLING, king, NONE);
+        }
+        return n;
+    }
+
+    private static long attacks(int type, int square, long occupied) {
+        return switch (type) {
+            case KNIGHT -> Bitboards.knightAttacks(square);
+            case BISHOP -> Bitboards.bishopAttacks(square, occupied);
+            case ROOK -> Bitboards.rookAttacks(square, occupied);
+            case QUEEN -> Bitboards.queenAttacks(square, occupied);
+            case KING -> Bitboards.kingAttacks(square);
+            default -> 0L;
+        };
+    }
+
+    // ---------------------------------- ATTACKS ----------------------------------
+
+    /**
+     * checks if square is attacked by any piece of a color
+     * @param square to check
+     * @param by attacking color
+     * @return is square attacked
+     */
+    public boolean isAttacked(int square, int by) {
+        long queens = bitboards[piece(QUEEN, by)];
+        return (Bitboards.pawnAttacks(by ^ 1, square) & bitboards[piece(PAWN, by)]) != 0
+                || (Bitboards.knightAttacks(square) & bitboards[piece(KNIGHT, by)]) != 0
+                || (Bitboards.kingAttacks(square) & bitboards[piece(KING, by)]) != 0
+                || (Bitboards.bishopAttacks(square, occupied) & (bitboards[piece(BISHOP, by)] | queens)) != 0
+                || (Bitboards.rookAttacks(square, occupied) & (bitboards[piece(ROOK, by)] | queens)) != 0;
+    }
+
+    /**
+     * @return can side to move capture en passant
+     */
+    public boolean canCaptureEnPassant() {
+        return epSquare != NONE && (Bitboards.pawnAttacks(side ^ 1, epSquare) & bitboards[piece(PAWN, side)]) != 0;
+    }
+
+    /**
+     * @return is side to move in check
+     */
+    public boolean inCheck() {
+        int king = getKingSquare(side);
+        return king != NONE && isAttacked(king, side ^ 1);
+    }
+
+    /**
+     * @param color of the king
+     * @return square of the king or NONE
+     */
+    public int getKingSquare(int color) {
+        long king = bitboards[piece(KING, color)];
+        return king == 0 ? NONE : Long.numberOfTrailingZeros(king);
+    }
+
+    // ---------------------------------- EVALUATION ----------------------------------
+
+    /**
+     * scores position by piece ratings, square tables and pawn structure, middlegame and endgame totals are blended
+     * by the game phase so the score changes smoothly while pieces leave the board. The totals are updated by every
+     * move and the pawn structure is mostly taken from the pawn table, nothing is scanned here.
+     * @return score from the view of side to move
+     */
+    public int evaluate() {
+        int middle = material[side] - material[side ^ 1];
+        int end = endMaterial[side] - endMaterial[side ^ 1];
+        long pawns = getPawnStructure();
+        int sign = side == WHITE ? 1 : -1;
+        middle += sign * PawnTable.middle(pawns);
+        end += sign * PawnTable.end(pawns);
+        int p = getPhase();
+        return (middle * p + end * (Evaluation.MAX_PHASE - p)) / Evaluation.MAX_PHASE;
+    }
+
+    private long getPawnStructure() {
+        if (pawnTable == null) {
+            pawnTable = new PawnTable(PawnTable.DEFAULT_ENTRIES);
+        }
+        long pawns = pawnTable.probe(pawnKey);
+        if (pawns == PawnTable.MISS) {
+            pawns = PawnStructure.evaluate(this);
+            pawnTable.store(pawnKey, pawns);
+        }
+        return pawns;
+    }
+
+    /**
+     * @return game phase from {@link Evaluation#MAX_PHASE} in the opening down to 0 with kings and pawns only
+     */
+    public int getPhase() {
+        return Math.min(phase, Evaluation.MAX_PHASE);
+    }
+
+    // ---------------------------------- GETTERS ----------------------------------
+
+    /**
+     * @param square to look at
+     * @return piece index on square or NONE
+     */
+    public int getPiece(int square) {
+        return squares[square];
+    }
+
+    public long getBitboard(int piece) {
+        return bitboards[piece];
+    }
+
+    public long getOccupancy(int color) {
+        return occupancy[color];
+    }
+
+    public long getOccupied() {
+        return occupied;
+    }
+
+    public int getSideToMove() {
+        return side;
+    }
+
+    public int getCastling() {
+        return castling;
+    }
+
+    public int getEnPassantSquare() {
+        return epSquare;
+    }
+
+    public int getHalfmoves() {
+        return halfmoves;
+    }
+
+    public int getFullmoves() {
+        return fullmoves;
+    }
+
+    /**
+     * @return Zobrist key of the position, see {@link Zobrist}
+     */
+    public long getKey() {
+        return key;
+    }
+
+    /**
+     * @return Zobrist key of pawns and kings, the pieces the pawn structure depends on
+     */
+    public long getPawnKey() {
+        return pawnKey;
+    }
+
+    public Evaluation getEvaluation() {
+        return evaluation;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.chess.engine;
+
+/**
+ * changes root move ratings by rules the search doesn't know, e.g. to avoid a draw. A search that rates root moves
+ * against a bound applies it during the search and rates adjusted moves exactly, so bounds are never adjusted.
+ */
+public interface RatingAdjustment {
+
+    /**
+     * @param index index of the root move
+     * @return does {@link #adjust} change the rating of the move
+     */
+    boolean changes(int index);
+
+    /**
+     * @param index index of the root move
+     * @param rating exact rating of the move from the view of the side to move
+     * @return adjusted rating
+     */
+    int adjust(int index, int rating);
+
+}
@@ -0,0 +1,193 @@
+package com.chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * rates root moves in parallel on a fork/join pool, every worker searches on its own copy of the position.
+ * Iterations follow <a href="https://www.chessprogramming.org/Young_Brothers_Wait_Concept">Young Brothers Wait</a>:
+ * the best move of the last iteration is rated first on its own, then its siblings are rated in parallel against
+ * a shared alpha that rises whenever a sibling turns out better.
+ * <p>
+ * Only the best move gets an exact rating, every other move is rated at most one below the best one. Moves whose
+ * rating is adjusted after the search are rated exactly, the adjusted rating is the alpha they raise.
+ */
+public final class RootParallelSearch {
+
+    private final Position position;
+    private final TranspositionTable table;
+    private final ForkJoinPool pool;
+    // search and position copy of every worker thread
+    private final ThreadLocal<Search> searches;
+    private final List<Search> workers = new CopyOnWriteArrayList<>();
+    private final AtomicLong nodes = new AtomicLong();
+
+    /**
+     * @param position searched position, it is not changed
+     * @param table transposition table shared by all workers
+     * @param evalCache evaluation cache shared by all workers, null for none
+     * @param threads number of worker threads
+     */
+    public RootParallelSearch(Position position, TranspositionTable table, EvalCache evalCache, int threads) {
+        this.position = position;
+        this.table = table;
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+        this.searches = ThreadLocal.withInitial(() -> {
+            Search search = new Search(new Position(position), table, evalCache);
+            workers.add(search);
+            return search;
+        });
+    }
+
+    /**
+     * rates root moves by iterative deepening like {@link Search#rateMoves}, the first iteration always finishes
+     * @param moves packed root moves
+     * @param count number of root moves
+     * @param ratings receives rating of every root move from the view of the side to move
+     * @param maxDepth maximum number of plies searched after the root moves
+     * @param millis time limit
+     * @param maxNodes node limit of all workers together, ratings running side by side may overshoot it
+     * @param adjustment applied to the ratings, null for none
+     * @return depth of the last finished iteration
+     */
+    public int rateMoves(int[] moves, int count, int[] ratings, int maxDepth, long millis, long maxNodes, RatingAdjustment adjustment) {
+        table.newSearch();
+        // idle between searches, the pool hands the cleared ordering over to the worker threads
+        for (Search worker : workers) {
+            worker.newSearch();
+        }
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        long nodeLimit = maxNodes > Long.MAX_VALUE - nodes.get() ? Long.MAX_VALUE : nodes.get() + maxNodes;
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        int[] current = new int[count];
+        int completed = -1;
+        for (int depth = 0; depth <= Math.min(maxDepth, Search.MAX_PLY - 2) && count > 0; depth++) {
+            boolean first = completed < 0;
+            Iteration iteration = new Iteration(moves, order, current, depth, adjustment,
+                    first ? Long.MAX_VALUE : deadline, first ? Long.MAX_VALUE : nodeLimit);
+            try {
+                pool.invoke(iteration);
+            } catch (RejectedExecutionException e) {
+                // shut down while rating, the game is over
+                break;
+            }
+            if (iteration.stopped.get()) {
+                break;
+            }
+            System.arraycopy(current, 0, ratings, 0, count);
+            completed = depth;
+            sortByRating(order, ratings);
+            if (System.nanoTime() >= deadline || nodes.get() >= nodeLimit) {
+                break;
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * @return number of positions visited by all workers since creation
+     */
+    public long getNodes() {
+        return nodes.get();
+    }
+
+    private static void sortByRating(int[] order, int[] ratings) {
+        for (int i = 1; i < order.length; i++) {
+            int index = order[i];
+            int j = i - 1;
+            while (j >= 0 && ratings[order[j]] < ratings[index]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = index;
+        }
+    }
+
+    /**
+     * ends the worker threads once the running iteration is done, later ratings return without result
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    // ---------------------------------- TASKS ----------------------------------
+
+    /**
+     * one iteration, the eldest brother first, then the younger ones in parallel
+     */
+    @SuppressWarnings("serial")
+    private final class Iteration extends RecursiveAction {
+
+        private final int[] moves;
+        private final int[] order;
+        private final int[] ratings;
+        private final int depth;
+        private final RatingAdjustment adjustment;
+        private final long deadline;
+        private final long nodeLimit;
+        private final AtomicInteger alpha = new AtomicInteger(-Search.INFINITY);
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        Iteration(int[] moves, int[] order, int[] ratings, int depth, RatingAdjustment adjustment, long deadline, long nodeLimit) {
+            this.moves = moves;
+            this.order = order;
+            this.ratings = ratings;
+            this.depth = depth;
+            this.adjustment = adjustment;
+            this.deadline = deadline;
+            this.nodeLimit = nodeLimit;
+        }
+
+        @Override
+        protected void compute() {
+            rate(order[0]);
+            List<RecursiveAction> brothers = new ArrayList<>(order.length - 1);
+            for (int i = 1; i < order.length; i++) {
+                int index = order[i];
+                brothers.add(new RecursiveAction() {
+                    @Override
+                    protected void compute() {
+                        rate(index);
+                    }
+                });
+            }
+            invokeAll(brothers);
+        }
+
+        private void rate(int index) {
+            if (stopped.get()) {
+                return;
+            }
+            Search search = searches.get();
+            search.getPosition().copyFrom(position);
+            long before = search.getNodes();
+            long remaining = nodeLimit == Long.MAX_VALUE ? Long.MAX_VALUE : nodeLimit - nodes.get();
+            search.limit(deadline, Math.max(0, remaining));
+            boolean adjusted = adjustment != null && adjustment.changes(index);
+            // one below alpha, so moves as good as the best one keep their exact rating; adjusted moves need it always
+            int rating = search.rateMove(moves[index], depth, adjusted ? -Search.INFINITY : alpha.get() - 1);
+            nodes.addAndGet(search.getNodes() - before);
+            if (search.isStopped()) {
+                stopped.set(true);
+                return;
+            }
+            if (adjusted) {
+                rating = adjustment.adjust(index, rating);
+            }
+            ratings[index] = rating;
+            alpha.accumulateAndGet(rating, Math::max);
+        }
+
+    }
+
+}
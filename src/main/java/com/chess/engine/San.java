@@ -0,0 +1,308 @@
+package com.chess.engine;
+
+/**
+ * standard algebraic notation (SAN) of moves as used in PGN, e.g. Nbd7, exd6, e8=Q+, O-O
+ */
+public final class San {
+
+    /**
+     * returned by {@link #find} when a move fits several legal moves
+     */
+    public static final int AMBIGUOUS = -1;
+    /**
+     * returned by {@link #decode} for tokens that are no move
+     */
+    public static final int INVALID = 0;
+
+    private static final int CASTLE = 1 << 20;
+    private static final int QUEEN_SIDE = 1 << 21;
+    private static final int VALID = 1 << 22;
+
+    private static final String PIECES = "PNBRQK";
+
+    private San() {
+    }
+
+    /**
+     * @param position position before the move, restored afterwards
+     * @param move legal move
+     * @return move in SAN including check or mate suffix
+     */
+    public static String format(Position position, int move) {
+        int[] legal = new int[Position.MAX_MOVES];
+        int count = position.generateLegalMoves(legal, 0);
+        StringBuilder san = new StringBuilder(8);
+        appendMove(san, move, legal, count);
+        position.makeMove(move);
+        if (position.inCheck()) {
+            san.append(position.generateLegalMoves(legal, 0) == 0 ? '#' : '+');
+        }
+        position.unmakeMove();
+        return san.toString();
+    }
+
+    /**
+     * appends a move without check or mate suffix, disambiguated against legal moves the caller already knows
+     * @param san receives the move
+     * @param move legal move
+     * @param legal legal moves of the position before the move, at least the other ones of the same piece to the
+     * same square
+     * @param count number of moves in legal
+     * @return the builder
+     */
+    public static StringBuilder append(StringBuilder san, int move, int[] legal, int count) {
+        appendMove(san, move, legal, count);
+        return san;
+    }
+
+    /**
+     * finds legal move written in SAN, missing or superfluous disambiguation and annotations are tolerated
+     * @param position position before the move
+     * @param san move token, e.g. Nf3, exd5+, 0-0, e8Q
+     * @param legal buffer receiving the legal moves
+     * @return packed move, {@link MoveCode#NONE} if no legal move fits, {@link #AMBIGUOUS} if several fit
+     */
+    public static int find(Position position, CharSequence san, int[] legal) {
+        int spec = decode(san);
+        if (spec == INVALID) {
+            return MoveCode.NONE;
+        }
+        int count = position.generateLegalMoves(legal, 0);
+        int found = MoveCode.NONE;
+        for (int i = 0; i < count; i++) {
+            if (matches(spec, legal[i])) {
+                if (found != MoveCode.NONE) {
+                    return AMBIGUOUS;
+                }
+                found = legal[i];
+            }
+        }
+        return found;
+    }
+
+    // ---------------------------------- DECODING ----------------------------------
+
+    /**
+     * parses a SAN token once into a packed move description, without allocating:
+     * <pre>
+     * bits  0 -  5  target square
+     * bits  6 -  9  start file + 1, 0 if not given
+     * bits 10 - 13  start rank + 1, 0 if not given
+     * bits 14 - 16  piece type
+     * bits 17 - 19  promotion piece type + 1, 0 if none
+     * bit  20       castling, bit 21 set for the queen side
+     * bit  22       valid
+     * </pre>
+     * Check, mate and annotation suffixes, capture marks and castling written with zeros are accepted.
+     * @param san move token, e.g. Nbd7, exd6, e8=Q+, O-O, Ng1e2
+     * @return move description for {@link #matches} or {@link #INVALID}
+     */
+    public static int decode(CharSequence san) {
+        int end = san.length();
+        while (end > 0 && isSuffix(san.charAt(end - 1))) {
+            end--;
+        }
+        if (end == 0) {
+            return INVALID;
+        }
+        char first = san.charAt(0);
+        if (first == 'O' || first == '0') {
+            return decodeCastling(san, end);
+        }
+        int i = 0;
+        int type = PIECES.indexOf(first);
+        if (type >= 0) {
+            i++;
+        } else {
+            type = Position.PAWN;
+        }
+        // last four coordinates, the latest in the lowest byte
+        int coordinates = 0;
+        int n = 0;
+        int promotion = Position.NONE;
+        for (; i < end; i++) {
+            char c = san.charAt(i);
+            boolean rank = c >= '1' && c <= '8';
+            boolean promotionRank = n >= 2 && ((coordinates & 0xFF) == '8' || (coordinates & 0xFF) == '1');
+            if (type == Position.PAWN && promotionRank && promotion == Position.NONE && (c == '=' || isPromotion(c))) {
+                if (c == '=') {
+                    if (++i == end) {
+                        return INVALID;
+                    }
+                    c = san.charAt(i);
+                }
+                promotion = promotionType(c);
+                if (promotion == Position.NONE) {
+                    return INVALID;
+                }
+            } else if (promotion == Position.NONE && n < 4 && (rank || c >= 'a' && c <= 'h')) {
+                coordinates = coordinates << 8 | c;
+                n++;
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return INVALID;
+            }
+        }
+        int toRank = coordinates & 0xFF;
+        int toFile = (coordinates >>> 8) & 0xFF;
+        if (n < 2 || !isFile(toFile) || !isRank(toRank)) {
+            return INVALID;
+        }
+        int fromFile = 0;
+        int fromRank = 0;
+        if (n == 4) {
+            fromFile = (coordinates >>> 24) & 0xFF;
+            fromRank = (coordinates >>> 16) & 0xFF;
+            if (!isFile(fromFile) || !isRank(fromRank)) {
+                return INVALID;
+            }
+        } else if (n == 3) {
+            int c = (coordinates >>> 16) & 0xFF;
+            if (isFile(c)) {
+                fromFile = c;
+            } else {
+                fromRank = c;
+            }
+        }
+        if (type == Position.PAWN && fromFile == 0) {
+            // pawns without start file push straight ahead
+            fromFile = toFile;
+        }
+        int to = Bitboards.square(toFile - 'a', toRank - '1');
+        return VALID | to
+                | (fromFile == 0 ? 0 : fromFile - 'a' + 1) << 6
+                | (fromRank == 0 ? 0 : fromRank - '1' + 1) << 10
+                | type << 14
+                | (promotion + 1) << 17;
+    }
+
+    /**
+     * compares a decoded SAN token with a move using integer comparisons only
+     * @param spec move description from {@link #decode}
+     * @param move packed legal move
+     * @return does the move fit the description, a pawn reaching the last rank without promotion piece is promoted to
+     * a queen
+     */
+    public static boolean matches(int spec, int move) {
+        if (spec == INVALID || move == MoveCode.NONE) {
+            return false;
+        }
+        int flag = MoveCode.flag(move);
+        if ((spec & CASTLE) != 0) {
+            return flag == MoveCode.CASTLING && ((spec & QUEEN_SIDE) != 0) == (MoveCode.to(move) < MoveCode.from(move));
+        }
+        if (flag == MoveCode.CASTLING || MoveCode.to(move) != (spec & 63)
+                || Position.type(MoveCode.piece(move)) != ((spec >>> 14) & 7)) {
+            return false;
+        }
+        int from = MoveCode.from(move);
+        int fromFile = (spec >>> 6) & 15;
+        int fromRank = (spec >>> 10) & 15;
+        if (fromFile != 0 && fromFile - 1 != Bitboards.file(from) || fromRank != 0 && fromRank - 1 != Bitboards.rank(from)) {
+            return false;
+        }
+        int promotion = ((spec >>> 17) & 7) - 1;
+        if (flag == MoveCode.PROMOTION) {
+            return MoveCode.promotion(move) == (promotion == Position.NONE ? Position.QUEEN : promotion);
+        }
+        return promotion == Position.NONE;
+    }
+
+    private static int decodeCastling(CharSequence san, int end) {
+        int rooks = 0;
+        for (int i = 0; i < end; i++) {
+            char c = san.charAt(i);
+            if (c == 'O' || c == '0') {
+                rooks++;
+            } else if (c != '-') {
+                return INVALID;
+            }
+        }
+        if (rooks == 2) {
+            return VALID | CASTLE;
+        }
+        return rooks == 3 ? VALID | CASTLE | QUEEN_SIDE : INVALID;
+    }
+
+    private static boolean isSuffix(char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    private static boolean isFile(int c) {
+        return c >= 'a' && c <= 'h';
+    }
+
+    private static boolean isRank(int c) {
+        return c >= '1' && c <= '8';
+    }
+
+    private static boolean isPromotion(char c) {
+        return promotionType(c) != Position.NONE;
+    }
+
+    /**
+     * @return promotion piece type of an upper or lower case letter, bishops only in upper case as b is a file
+     */
+    private static int promotionType(char c) {
+        return switch (c) {
+            case 'N', 'n' -> Position.KNIGHT;
+            case 'B' -> Position.BISHOP;
+            case 'R', 'r' -> Position.ROOK;
+            case 'Q', 'q' -> Position.QUEEN;
+            default -> Position.NONE;
+        };
+    }
+
+    // ---------------------------------- FORMATTING ----------------------------------
+
+    private static void appendMove(StringBuilder san, int move, int[] legal, int count) {
+        int from = MoveCode.from(move);
+        int to = MoveCode.to(move);
+        if (MoveCode.flag(move) == MoveCode.CASTLING) {
+            san.append(to > from ? "O-O" : "O-O-O");
+            return;
+        }
+        int piece = MoveCode.piece(move);
+        boolean capture = MoveCode.isCapture(move);
+        if (Position.type(piece) == Position.PAWN) {
+            if (capture) {
+                san.append((char) ('a' + Bitboards.file(from))).append('x');
+            }
+        } else {
+            san.append(PIECES.charAt(Position.type(piece)));
+            appendDisambiguation(san, move, legal, count);
+            if (capture) {
+                san.append('x');
+            }
+        }
+        san.append(MoveCode.squareName(to));
+        if (MoveCode.flag(move) == MoveCode.PROMOTION) {
+            san.append('=').append(PIECES.charAt(MoveCode.promotion(move)));
+        }
+    }
+
+    private static void appendDisambiguation(StringBuilder san, int move, int[] legal, int count) {
+        int from = MoveCode.from(move);
+        boolean other = false;
+        boolean sameFile = false;
+        boolean sameRank = false;
+        for (int i = 0; i < count; i++) {
+            int m = legal[i];
+            if (m != move && MoveCode.piece(m) == MoveCode.piece(move) && MoveCode.to(m) == MoveCode.to(move)) {
+                other = true;
+                sameFile |= Bitboards.file(MoveCode.from(m)) == Bitboards.file(from);
+                sameRank |= Bitboards.rank(MoveCode.from(m)) == Bitboards.rank(from);
+            }
+        }
+        if (!other) {
+            return;
+        }
+        if (!sameFile) {
+            san.append((char) ('a' + Bitboards.file(from)));
+        } else if (!sameRank) {
+            san.append((char) ('1' + Bitboards.rank(from)));
+        } else {
+            san.append(MoveCode.squareName(from));
+        }
+    }
+
+}
@@ -0,0 +1,434 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * <a href="https://www.chessprogramming.org/Alpha-Beta">Alpha-Beta</a> search on a bitboard position
+ */
+public final class Search {
+
+    public static final int INFINITY = 1000000;
+    public static final int MATE = 900000;
+    public static final int MAX_PLY = 128;
+    /**
+     * time or node limit that never runs out
+     */
+    public static final long NO_LIMIT = Long.MAX_VALUE;
+
+    // limits are checked every 1024 nodes
+    private static final int CHECK_INTERVAL = 1023;
+
+    private final Position position;
+    private final Evaluation evaluation;
+    private final TranspositionTable table;
+    // static evaluations of the leaves, null to evaluate every leaf
+    private final EvalCache evalCache;
+    // one move picker per search ply, nothing is allocated during the search
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    // two killer moves per ply, quiet moves that caused a cutoff in a sibling node
+    private final int[][] killers = new int[MAX_PLY][2];
+    // butterfly history per color, indexed by start and target square
+    private final int[][][] history = new int[2][64][64];
+    private long nodes;
+    private SearchListener listener;
+
+    private long deadline;
+    private long nodeLimit = Long.MAX_VALUE;
+    private boolean limited;
+    private boolean stopped;
+    // set by other threads to end the search
+    private volatile boolean aborted;
+
+    /**
+     * @param position searched position, it is restored after every search
+     * @param table transposition table, may be shared with other searches
+     */
+    public Search(Position position, TranspositionTable table) {
+        this(position, table, null);
+    }
+
+    /**
+     * @param position searched position, it is restored after every search
+     * @param table transposition table, may be shared with other searches
+     * @param evalCache evaluation cache, may be shared with other searches, null for none
+     */
+    public Search(Position position, TranspositionTable table, EvalCache evalCache) {
+        this.position = position;
+        this.evaluation = position.getEvaluation();
+        this.table = table;
+        this.evalCache = evalCache;
+        for (int i = 0; i < MAX_PLY; i++) {
+            pickers[i] = new MovePicker();
+        }
+    }
+
+    /**
+     * rates root moves by <a href="https://www.chessprogramming.org/Iterative_Deepening">iterative deepening</a>,
+     * searching one ply deeper each iteration until the maximum depth is reached or a limit runs out.
+     * Ratings of an unfinished iteration are dropped, the first iteration always finishes, also on {@link #stop()}.
+     * @param moves packed root moves
+     * @param count number of root moves
+     * @param ratings receives rating of every root move from the view of the side to move
+     * @param maxDepth maximum number of plies searched after the root moves
+     * @param millis time limit
+     * @param maxNodes node limit
+     * @return depth of the last finished iteration, -1 without root moves
+     */
+    public int rateMoves(int[] moves, int count, int[] ratings, int maxDepth, long millis, long maxNodes) {
+        newSearch();
+        deadline = millis >= NO_LIMIT / 1_000_000L ? NO_LIMIT : System.nanoTime() + millis * 1_000_000L;
+        nodeLimit = maxNodes > Long.MAX_VALUE - nodes ? Long.MAX_VALUE : nodes + maxNodes;
+        return iterate(moves, count, ratings, 0, maxDepth, false);
+    }
+
+    /**
+     * searches root moves by iterative deepening without limits until {@link #stop()} is called, results are only
+     * shared through the transposition table, used by helper threads of a parallel search. {@link #newSearch()} has
+     * to be called before, by the thread that later stops the search, so a stop can't get lost.
+     * @param moves packed root moves
+     * @param count number of root moves
+     * @param startDepth depth of the first iteration
+     * @param maxDepth maximum number of plies searched after the root moves
+     */
+    public void help(int[] moves, int count, int startDepth, int maxDepth) {
+        deadline = Long.MAX_VALUE;
+        nodeLimit = Long.MAX_VALUE;
+        iterate(moves, count, new int[count], startDepth, maxDepth, true);
+    }
+
+    /**
+     * makes a running search return soon, a helper search or rating stops before its next iteration finishes
+     */
+    public void stop() {
+        aborted = true;
+    }
+
+    /**
+     * prepares the search of a new root position: a previous {@link #stop()} is cleared, killers are forgotten and
+     * history is halved, so ordering follows the new position
+     */
+    public void newSearch() {
+        aborted = false;
+        clearOrdering();
+    }
+
+    private int iterate(int[] moves, int count, int[] ratings, int startDepth, int maxDepth, boolean stoppable) {
+        if (count == 0) {
+            return -1;
+        }
+        int[] current = new int[count];
+        stopped = false;
+        limited = stoppable;
+        int completed = -1;
+        for (int depth = startDepth; depth <= Math.min(maxDepth, MAX_PLY - 2); depth++) {
+            for (int i = 0; i < count && !stopped; i++) {
+                current[i] = rateMove(moves[i], depth);
+            }
+            if (stopped) {
+                break;
+            }
+            System.arraycopy(current, 0, ratings, 0, count);
+            completed = depth;
+            if (listener != null) {
+                reportIteration(moves, count, ratings, depth);
+            }
+            limited = true;
+            if (aborted || isLimitReached()) {
+                break;
+            }
+        }
+        limited = false;
+        return completed;
+    }
+
+    /**
+     * rates a root move by searching the replies of the opponent
+     * @param move packed root move
+     * @param depth number of plies searched after the root move
+     * @return rating from the view of the side playing the move
+     */
+    public int rateMove(int move, int depth) {
+        return rateMove(move, depth, -INFINITY);
+    }
+
+    /**
+     * rates a root move that only matters if it is better than alpha
+     * @param move packed root move
+     * @param depth number of plies searched after the root move
+     * @param alpha rating to beat, a worse move gets a rating of at most alpha
+     * @return rating from the view of the side playing the move
+     */
+    public int rateMove(int move, int depth, int alpha) {
+        position.makeMove(move);
+        int rating = -alphaBeta(depth, 1, -INFINITY, -alpha);
+        position.unmakeMove();
+        return rating;
+    }
+
+    /**
+     * sets limits for following {@link #rateMove} calls, a rating started after the limits ran out is worthless
+     * @param deadline {@link System#nanoTime()} to stop at
+     * @param maxNodes number of positions the following ratings may visit
+     */
+    public void limit(long deadline, long maxNodes) {
+        this.deadline = deadline;
+        nodeLimit = maxNodes > Long.MAX_VALUE - nodes ? Long.MAX_VALUE : nodes + maxNodes;
+        stopped = false;
+        limited = true;
+    }
+
+    /**
+     * @return did the last rating stop early because of limits or {@link #stop()}
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    private int alphaBeta(int depth, int ply, int alpha, int beta) {
+        countNode();
+        if (stopped) {
+            return 0;
+        }
+        if (depth == 0) {
+            return quiesce(ply, alpha, beta);
+        }
+
+        long key = position.getKey();
+        long entry = table.probe(key);
+        int hashMove = MoveCode.NONE;
+        if (entry != TranspositionTable.MISS) {
+            hashMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MovePicker picker = pickers[ply];
+        int side = position.getSideToMove();
+        picker.init(position, hashMove, killers[ply], history[side]);
+        int alphaStart = alpha;
+        int bestMove = MoveCode.NONE;
+        boolean hasMoves = false;
+        int move;
+        while ((move = picker.next()) != MoveCode.NONE) {
+            if (!position.makeLegalMove(move)) {
+                continue;
+            }
+            hasMoves = true;
+            int rating = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+            position.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (rating > alpha) {
+                alpha = rating;
+                bestMove = move;
+                if (alpha >= beta) {
+                    if (!MovePicker.isTactical(move)) {
+                        storeKiller(ply, move);
+                        history[side][MoveCode.from(move)][MoveCode.to(move)] += depth * depth;
+                    }
+                    break;
+                }
+            }
+        }
+        if (!hasMoves) {
+            // checkmate or stalemate
+            return position.inCheck() ? -MATE + ply : 0;
+        }
+
+        int bound;
+        if (alpha >= beta) {
+            bound = TranspositionTable.LOWER;
+        } else if (alpha > alphaStart) {
+            bound = TranspositionTable.EXACT;
+        } else {
+            bound = TranspositionTable.UPPER;
+        }
+        table.store(key, bestMove, depth, bound, toTable(alpha, ply));
+        return alpha;
+    }
+
+    /**
+     * @return static evaluation of the position, taken from the evaluation cache if it was seen before
+     */
+    private int evaluate() {
+        if (evalCache == null) {
+            return position.evaluate();
+        }
+        long key = position.getKey();
+        int score = evalCache.probe(key);
+        if (score == EvalCache.MISS) {
+            score = position.evaluate();
+            evalCache.store(key, score);
+        }
+        return score;
+    }
+
+    /**
+     * <a href="https://www.chessprogramming.org/Quiescence_Search">quiescence search</a>, only captures are searched
+     * until the position is quiet so the rating does not depend on a capture just before the horizon
+     */
+    private int quiesce(int ply, int alpha, int beta) {
+        int standPat = evaluate();
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+        MovePicker picker = pickers[ply];
+        picker.initCaptures(position);
+        // captures that can't lift the rating close to alpha are skipped
+        int margin = 2 * evaluation.value(Position.PAWN);
+        int move;
+        while ((move = picker.next()) != MoveCode.NONE) {
+            if (MoveCode.flag(move) != MoveCode.PROMOTION && standPat + evaluation.value(MoveCode.captured(move)) + margin <= alpha) {
+                continue;
+            }
+            if (!position.makeLegalMove(move)) {
+                continue;
+            }
+            countNode();
+            int rating = stopped ? 0 : -quiesce(ply + 1, -beta, -alpha);
+            position.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+            if (rating > alpha) {
+                alpha = rating;
+                if (alpha >= beta) {
+                    break;
+                }
+            }
+        }
+        return alpha;
+    }
+
+    private void countNode() {
+        nodes++;
+        if (limited && (nodes & CHECK_INTERVAL) == 0 && (aborted || isLimitReached())) {
+            stopped = true;
+        }
+    }
+
+    private boolean isLimitReached() {
+        return nodes >= nodeLimit || System.nanoTime() >= deadline;
+    }
+
+    private void reportIteration(int[] moves, int count, int[] ratings, int depth) {
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (ratings[i] > ratings[best]) {
+                best = i;
+            }
+        }
+        listener.iterationFinished(depth, moves[best], ratings[best], nodes);
+    }
+
+    /**
+     * follows best moves stored in the transposition table
+     * @param move root move the line starts with
+     * @param maxLength maximum number of moves
+     * @return legal moves of the expected line, starting with the root move
+     */
+    public int[] getPrincipalVariation(int move, int maxLength) {
+        int[] line = new int[maxLength];
+        int[] legal = pickers[0].buffer();
+        int length = 0;
+        position.makeMove(move);
+        line[length++] = move;
+        while (length < maxLength && position.getRepetitions() == 0) {
+            long entry = table.probe(position.getKey());
+            int next = entry == TranspositionTable.MISS ? MoveCode.NONE : TranspositionTable.move(entry);
+            if (next == MoveCode.NONE || !contains(legal, position.generateLegalMoves(legal, 0), next)) {
+                break;
+            }
+            position.makeMove(next);
+            line[length++] = next;
+        }
+        for (int i = 0; i < length; i++) {
+            position.unmakeMove();
+        }
+        return Arrays.copyOf(line, length);
+    }
+
+    private static boolean contains(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void storeKiller(int ply, int move) {
+        int[] slots = killers[ply];
+        if (slots[0] != move) {
+            slots[1] = slots[0];
+            slots[0] = move;
+        }
+    }
+
+    private void clearOrdering() {
+        for (int[] slots : killers) {
+            slots[0] = MoveCode.NONE;
+            slots[1] = MoveCode.NONE;
+        }
+        for (int[][] side : history) {
+            for (int[] from : side) {
+                for (int to = 0; to < 64; to++) {
+                    from[to] >>= 1;
+                }
+            }
+        }
+    }
+
+    // mate scores are stored relative to the position and not to the root
+    private static int toTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) {
+            return score + ply;
+        }
+        return score < -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) {
+            return score - ply;
+        }
+        return score < -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    /**
+     * @return number of positions visited since creation
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public EvalCache getEvalCache() {
+        return evalCache;
+    }
+
+    /**
+     * @param listener informed after every finished iteration, null for none
+     */
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    public Position getPosition() {
+        return position;
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.chess.engine;
+
+/**
+ * informed about search progress, e.g. to print UCI info lines
+ */
+@FunctionalInterface
+public interface SearchListener {
+
+    /**
+     * called after every finished iteration of the iterative deepening
+     * @param depth number of plies searched after the root moves
+     * @param bestMove best rated root move
+     * @param rating rating of the best move from the view of the side to move
+     * @param nodes number of positions visited by the search so far
+     */
+    void iterationFinished(int depth, int bestMove, int rating, long nodes);
+
+}
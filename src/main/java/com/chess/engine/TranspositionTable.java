@@ -0,0 +1,136 @@
+package com.chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * <a href="https://www.chessprogramming.org/Transposition_Table">transposition table</a> held in a single
+ * {@code long[]}. Every bucket has a depth-preferred and an always-replace entry of two longs, the key XOR the data
+ * and the data itself. A probe only accepts an entry whose halves fit together, so threads may read and write
+ * without locks and a torn entry is simply a miss.
+ * <pre>
+ * data bits  0 - 25  best move
+ * data bits 26 - 27  bound
+ * data bits 28 - 34  depth
+ * data bits 35 - 41  search generation
+ * data bits 42 - 63  score
+ * </pre>
+ */
+public final class TranspositionTable {
+
+    public static final int EXACT = 1;
+    public static final int LOWER = 2;
+    public static final int UPPER = 3;
+
+    /**
+     * returned by {@link #probe} when the key is not stored, no stored entry equals it since bound is never 0
+     */
+    public static final long MISS = 0;
+
+    // 2 entries of 2 longs
+    private static final int BUCKET_LONGS = 4;
+    private static final int BUCKET_BYTES = BUCKET_LONGS * Long.BYTES;
+
+    private final long[] table;
+    private final int mask;
+    private int generation;
+
+    /**
+     * @param megabytes table size, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(int megabytes) {
+        long buckets = Long.highestOneBit(Math.max(1L, (long) megabytes * 1024 * 1024 / BUCKET_BYTES));
+        buckets = Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / BUCKET_LONGS));
+        table = new long[(int) buckets * BUCKET_LONGS];
+        mask = (int) buckets - 1;
+    }
+
+    /**
+     * @param key Zobrist key of the position
+     * @return stored data or {@link #MISS}
+     */
+    public long probe(long key) {
+        int i = index(key);
+        for (int slot = i; slot < i + BUCKET_LONGS; slot += 2) {
+            long data = table[slot + 1];
+            if ((table[slot] ^ data) == key && data != MISS) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * stores a search result, the depth-preferred entry is only replaced by deeper or newer results,
+     * everything else goes to the always-replace entry
+     * @param key Zobrist key of the position
+     * @param move best move or {@link MoveCode#NONE}
+     * @param depth remaining search depth
+     * @param bound EXACT, LOWER or UPPER
+     * @param score search score, mate scores relative to the position
+     */
+    public void store(long key, int move, int depth, int bound, int score) {
+        int i = index(key);
+        long data = (move & 0x3FFFFFFL)
+                | ((long) bound << 26)
+                | ((long) depth << 28)
+                | ((long) generation << 35)
+                | ((long) score << 42);
+        long preferred = table[i + 1];
+        if ((table[i] ^ preferred) == key || generation(preferred) != generation || depth >= depth(preferred)) {
+            table[i] = key ^ data;
+            table[i + 1] = data;
+        } else {
+            table[i + 2] = key ^ data;
+            table[i + 3] = data;
+        }
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ (key >>> 32)) & mask) * BUCKET_LONGS;
+    }
+
+    /**
+     * ages stored entries so results of earlier searches are replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & 127;
+    }
+
+    /**
+     * removes all entries
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        generation = 0;
+    }
+
+    /**
+     * @return size in bytes
+     */
+    public long size() {
+        return (long) table.length * Long.BYTES;
+    }
+
+    // ---------------------------------- DATA ACCESS ----------------------------------
+
+    public static int move(long data) {
+        return (int) (data & 0x3FFFFFFL);
+    }
+
+    public static int bound(long data) {
+        return (int) (data >>> 26) & 3;
+    }
+
+    public static int depth(long data) {
+        return (int) (data >>> 28) & 127;
+    }
+
+    public static int score(long data) {
+        return (int) (data >> 42);
+    }
+
+    private static int generation(long data) {
+        return (int) (data >>> 35) & 127;
+    }
+
+}
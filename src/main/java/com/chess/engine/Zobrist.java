@@ -0,0 +1,83 @@
+package com.chess.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * <a href="https://www.chessprogramming.org/Zobrist_Hashing">Zobrist</a> keys, a position key is the XOR of the keys
+ * of all pieces on their squares, castling rights, en passant file and side to move
+ */
+public final class Zobrist {
+
+    private static final long[][] PIECES = new long[12][64];
+    private static final long[] CASTLING = new long[16];
+    private static final long[] EN_PASSANT = new long[8];
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        // fixed seed so keys are the same in every run
+        SplittableRandom random = new SplittableRandom(0x5EED_C0DE_2024L);
+        for (long[] piece : PIECES) {
+            for (int sq = 0; sq < 64; sq++) {
+                piece[sq] = random.nextLong();
+            }
+        }
+        for (int i = 0; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT.length; i++) {
+            EN_PASSANT[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    public static long piece(int piece, int square) {
+        return PIECES[piece][square];
+    }
+
+    /**
+     * @param rights castling bits, see {@link Position#WHITE_KING_SIDE}
+     * @return key of the combined rights
+     */
+    public static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @param square en passant target square
+     * @return key of the file of the square
+     */
+    public static long enPassant(int square) {
+        return EN_PASSANT[Bitboards.file(square)];
+    }
+
+    public static long blackToMove() {
+        return BLACK_TO_MOVE;
+    }
+
+    /**
+     * computes key from scratch, positions keep their key up to date on their own
+     * @param position to compute key of
+     * @return position key
+     */
+    public static long compute(Position position) {
+        long key = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = position.getPiece(sq);
+            if (piece != Position.NONE) {
+                key ^= PIECES[piece][sq];
+            }
+        }
+        key ^= CASTLING[position.getCastling()];
+        if (position.canCaptureEnPassant()) {
+            key ^= enPassant(position.getEnPassantSquare());
+        }
+        if (position.getSideToMove() == Position.BLACK) {
+            key ^= BLACK_TO_MOVE;
+        }
+        return key;
+    }
+
+}
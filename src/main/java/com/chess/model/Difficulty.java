@@ -6,24 +6,34 @@ package com.chess.model;
 
 public enum Difficulty {
 
-    RANDOM("random", 1, 0, 1, false, true),
-    EASY("easy", 4, 1, 8, true, true),
-    HARD("hard", 7, 2, 30, true, true);
+    RANDOM("random", 1, 0, 1, true, 1, 1, 100, 10000, 1, 0),
+    EASY("easy", 4, 1, 8, true, 16, 2, 500, 200000, 1, 8),
+    HARD("hard", 7, 64, 30, true, 64, 8, 3000, 20000000, 0, 24);
 
     private final String name;
     private final int level;
     private final int tree;
     private final int spasm;
-    private final boolean recursionDepthChanges;
     private final boolean drawCheck;
+    private final int hash;
+    private final int evalHash;
+    private final long time;
+    private final long nodes;
+    private final int threads;
+    private final int book;
 
-    Difficulty(String name, int level, int tree, int spasm, boolean recursionDepthChanges, boolean drawCheck) {
+    Difficulty(String name, int level, int tree, int spasm, boolean drawCheck, int hash, int evalHash, long time, long nodes, int threads, int book) {
         this.name = name;
         this.level = level;
         this.tree = tree;
         this.spasm = spasm;
-        this.recursionDepthChanges = recursionDepthChanges;
         this.drawCheck = drawCheck;
+        this.hash = hash;
+        this.evalHash = evalHash;
+        this.time = time;
+        this.nodes = nodes;
+        this.threads = threads;
+        this.book = book;
     }
 
     // ---------------------------------- GENERIC GETTERS ----------------------------------
@@ -37,7 +47,7 @@ public enum Difficulty {
     }
 
     /**
-     * @return depth of recursive move checks
+     * @return maximum depth of recursive move checks, the search stops earlier when time or nodes run out
      */
     public int tree() {
         return tree;
@@ -51,18 +61,52 @@ public enum Difficulty {
     }
 
     /**
-     * gets flag setting for a difficulty representing if depth(of a move search) should be checked recursively in depth
-     * @return
+     * @return is draw checkers set for this difficulty
      */
-    public boolean recursion() {
-        return recursionDepthChanges;
+    public boolean draw() {
+        return drawCheck;
     }
 
     /**
-     * @return is draw checkers set for this difficulty
+     * @return size of the transposition table in MB
      */
-    public boolean draw() {
-        return drawCheck;
+    public int hash() {
+        return hash;
+    }
+
+    /**
+     * @return size of the evaluation cache in MB
+     */
+    public int evalHash() {
+        return evalHash;
+    }
+
+    /**
+     * @return time limit of an AI move in milliseconds
+     */
+    public long time() {
+        return time;
+    }
+
+    /**
+     * @return node limit of an AI move
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * @return number of search threads, all available cores if 0
+     */
+    public int threads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * @return number of plies the opening book is played, 0 if the book is not used
+     */
+    public int book() {
+        return book;
     }
 
 
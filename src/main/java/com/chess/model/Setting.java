@@ -1,24 +1,31 @@
 package com.chess.model;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnIndex;
+import com.chess.pgn.PgnReader;
 import com.chess.root.PgnParser;
-import javafx.scene.layout.GridPane;
 
 /**
  * Contains game setting
  */
 public class Setting {
 
-    private GridPane boardGrid;
+    private static final Logger LOG = Logger.getLogger(String.class.getName());
     private boolean whiteUp;
     private Mode mode;
     private PieceValues pieceValue;
     private Difficulty difficulty;
-    private String[] pgnMeta;
-    private List<String> pgnMoves;
-    private boolean hasPgn;
+    private PgnGame pgn;
+    private String fen;
+    private boolean rootParallel;
+    private Path book;
 
     public Setting(boolean whiteUp, Mode mode, PieceValues pieceValue, Difficulty difficulty) {
         this.whiteUp = whiteUp;
@@ -27,6 +34,31 @@ public class Setting {
         this.difficulty = difficulty;
     }
 
+    // ---------------------------------- FEN HANDLING ----------------------------------
+
+    /**
+     * sets start position of the game
+     * @param fen start position in FEN, null for the initial position
+     */
+    public void setFen(String fen) {
+        this.fen = fen;
+    }
+
+    /**
+     * checks if game starts from a set up position
+     * @return is start position given by FEN
+     */
+    public boolean hasFen() {
+        return getFen() != null;
+    }
+
+    /**
+     * @return start position in FEN, from the setting or the FEN tag of an imported pgn, null for the initial position
+     */
+    public String getFen() {
+        return fen != null ? fen : PgnParser.getFen(this);
+    }
+
     // ---------------------------------- PGN HANDLING ----------------------------------
 
     /**
@@ -34,16 +66,32 @@ public class Setting {
      * @return is pgn imported
      */
     public boolean hasPgn() {
-        return hasPgn;
+        return pgn != null;
     }
 
     /**
-     * parses pgn file
+     * reads first game of a pgn file, the rest of the file is not read
      * @param file to parse
      */
     public void addPgn(File file) {
-        String s = PgnParser.getFileContent(file);
-        addPgn(s);
+        try (PgnReader reader = PgnReader.open(file.toPath())) {
+            addPgn(reader.next());
+        } catch (IOException e) {
+            LOG.log(Level.SEVERE, "SYSTEM: pgn file can't be read", e);
+        }
+    }
+
+    /**
+     * reads one game of a multi-game pgn file through its index, games in front of it are not read
+     * @param file to read from
+     * @param game index of the game, 0 for the first one
+     */
+    public void addPgn(File file, int game) {
+        try (PgnIndex index = PgnIndex.open(file.toPath())) {
+            addPgn(index.getGame(game));
+        } catch (IOException | IndexOutOfBoundsException e) {
+            LOG.log(Level.SEVERE, "SYSTEM: pgn game can't be read", e);
+        }
     }
 
     /**
@@ -51,33 +99,24 @@ public class Setting {
      * @param s string to parse
      */
     public void addPgn(String s) {
-        hasPgn = true;
-        setPgnMeta(s);
-        setPgnMoves();
-    }
-
-    private void setPgnMeta(String s) {
         if (s != null) {
-            pgnMeta = s.split("]");
+            addPgn(PgnReader.parse(s));
         }
     }
 
     /**
-     * gets pgn meta of a setting
-     * @return pgnMeta
+     * @param game game to replay, e.g. picked from a multi-game file, null for none
      */
-    public String[] getPgnMeta() {
-        return pgnMeta;
+    public void addPgn(PgnGame game) {
+        pgn = game;
     }
 
-    private void setPgnMoves() {
-        String pgnMoveData = null;
-        if (pgnMeta != null) {
-            pgnMoveData = pgnMeta[pgnMeta.length - 1];
-        }
-        if (pgnMoveData != null) {
-            pgnMoves = PgnParser.parseMoves(pgnMoveData);
-        }
+    /**
+     * @param name tag name, e.g. Event
+     * @return tag value of the imported pgn or null
+     */
+    public String getPgnTag(String name) {
+        return pgn == null ? null : pgn.getTag(name);
     }
 
     /**
@@ -123,26 +162,11 @@ public class Setting {
      * @return list of pgn notation moves
      */
     public List<String> getPgnMoves() {
-        return pgnMoves;
+        return pgn == null ? null : pgn.getMoves();
     }
 
     // ---------------------------------- GENERIC SETTERS AND GETTERS ----------------------------------
 
-    /**
-     * links board grid to setting
-     * @param boardGrid to be linked
-     */
-    public void setGrid(GridPane boardGrid) {
-        this.boardGrid = boardGrid;
-    }
-
-    /**
-     * @return linked board grid
-     */
-    public GridPane getGrid() {
-        return boardGrid;
-    }
-
     /**
      * sets player selected color
      * @param whiteUp
@@ -203,5 +227,36 @@ public class Setting {
         return this.difficulty;
     }
 
+    /**
+     * switches AI between Lazy SMP and rating root moves in parallel. API only, the settings dialog always plays with
+     * Lazy SMP; meant for programs embedding the game that compare both searches.
+     * @param rootParallel rate root moves in parallel
+     */
+    public void setRootParallel(boolean rootParallel) {
+        this.rootParallel = rootParallel;
+    }
+
+    /**
+     * @return are root moves rated in parallel
+     */
+    public boolean isRootParallel() {
+        return rootParallel;
+    }
+
+    /**
+     * sets the opening book the AI plays from before it searches
+     * @param book Polyglot book file, null to search from the first move
+     */
+    public void setBook(Path book) {
+        this.book = book;
+    }
+
+    /**
+     * @return Polyglot book file, null if none is set
+     */
+    public Path getBook() {
+        return book;
+    }
+
 
 }
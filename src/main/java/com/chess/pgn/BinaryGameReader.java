@@ -0,0 +1,294 @@
+package com.chess.pgn;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.MoveCode;
+import com.chess.engine.Position;
+import com.chess.engine.San;
+
+/**
+ * reads games written by {@link BinaryGameWriter}. Moves are restored by generating the legal moves of each
+ * position and taking the stored index, no SAN is parsed.
+ */
+public final class BinaryGameReader implements Closeable {
+
+    private final InputStream in;
+    private final Evaluation evaluation = new Evaluation();
+    private final Position position = new Position(evaluation);
+    private final int[] legal = new int[Position.MAX_MOVES];
+    private final int[] rivals = new int[8];
+    private int generated;
+    private long offset;
+    private byte[] record = new byte[1024];
+    private int length;
+    private int index;
+
+    /**
+     * @param in binary game file from its start, buffered by the caller
+     * @throws IOException if the header is missing or of another version
+     */
+    public BinaryGameReader(InputStream in) throws IOException {
+        this.in = in;
+        byte[] header = new byte[BinaryGameWriter.MAGIC.length + 1];
+        if (in.readNBytes(header, 0, header.length) != header.length
+                || !Arrays.equals(header, 0, BinaryGameWriter.MAGIC.length, BinaryGameWriter.MAGIC, 0, BinaryGameWriter.MAGIC.length)) {
+            throw new IOException("no binary game file");
+        }
+        if (header[BinaryGameWriter.MAGIC.length] != BinaryGameWriter.VERSION) {
+            throw new IOException("unsupported binary game version " + header[BinaryGameWriter.MAGIC.length]);
+        }
+        offset = header.length;
+    }
+
+    /**
+     * @param file binary game file
+     * @return reader of the file, has to be closed
+     * @throws IOException if the file can't be opened or has no valid header
+     */
+    public static BinaryGameReader open(Path file) throws IOException {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16);
+        try {
+            return new BinaryGameReader(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * reads the next game with its moves in SAN
+     * @return next game, its offset is the one of its record, or null at the end of the file
+     * @throws IOException if reading fails or the record is corrupt
+     */
+    public PgnGame next() throws IOException {
+        long start = offset;
+        if (!readRecord()) {
+            return null;
+        }
+        PgnGame game = new PgnGame(start);
+        game.setLength(offset - start);
+        for (int tags = readVarint(); tags > 0; tags--) {
+            game.setTag(readString(), readString());
+        }
+        String result = readResult();
+        String fen = game.getTag("FEN");
+        position.copyFrom(Fen.parse(fen == null ? Fen.START : fen, evaluation));
+        String[] moves = new String[readVarint()];
+        StringBuilder san = new StringBuilder(8);
+        for (int ply = 0; ply < moves.length; ply++) {
+            int move = readMove();
+            san.setLength(0);
+            San.append(san, move, rivals, collectRivals(move));
+            position.makeMove(move);
+            if (position.inCheck()) {
+                san.append(hasLegalMove() ? '+' : '#');
+            }
+            moves[ply] = san.toString();
+        }
+        readAnnotations(game, moves);
+        if (result != null) {
+            game.setResult(result);
+        }
+        return game;
+    }
+
+    /**
+     * reads the next game as packed moves only, faster than {@link #next()} as no SAN is built
+     * @return main line moves, see {@link com.chess.engine.MoveCode}, played from the FEN tag or the initial
+     * position, or null at the end of the file
+     * @throws IOException if reading fails or the record is corrupt
+     */
+    public int[] nextMoves() throws IOException {
+        if (!readRecord()) {
+            return null;
+        }
+        String fen = null;
+        for (int tags = readVarint(); tags > 0; tags--) {
+            String name = readString();
+            String value = readString();
+            if (name.equals("FEN")) {
+                fen = value;
+            }
+        }
+        readResult();
+        position.copyFrom(Fen.parse(fen == null ? Fen.START : fen, evaluation));
+        int[] moves = new int[readVarint()];
+        for (int ply = 0; ply < moves.length; ply++) {
+            moves[ply] = readMove();
+            position.makeMove(moves[ply]);
+        }
+        return moves;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // ---------------------------------- RECORD ----------------------------------
+
+    private String readResult() throws IOException {
+        int result = readByte();
+        if (result >= BinaryGameWriter.RESULTS.length) {
+            throw new IOException("corrupt result " + result);
+        }
+        return BinaryGameWriter.RESULTS[result];
+    }
+
+    /**
+     * finds the next move, only the pseudo legal moves up to the stored index are tried for legality
+     * @return legal move, the position is unchanged
+     */
+    private int readMove() throws IOException {
+        int index = readByte();
+        generated = position.generateMoves(legal, 0);
+        for (int i = 0; i < generated; i++) {
+            if (position.makeLegalMove(legal[i])) {
+                position.unmakeMove();
+                if (index-- == 0) {
+                    return legal[i];
+                }
+            }
+        }
+        throw new IOException("corrupt move index at offset " + offset);
+    }
+
+    /**
+     * @param move move just read
+     * @return number of other legal moves of the same piece to the same square, the only ones SAN disambiguates
+     * against, none for pawns
+     */
+    private int collectRivals(int move) {
+        int count = 0;
+        if (Position.type(MoveCode.piece(move)) == Position.PAWN) {
+            return count;
+        }
+        for (int i = 0; i < generated; i++) {
+            int m = legal[i];
+            if (m != move && MoveCode.piece(m) == MoveCode.piece(move) && MoveCode.to(m) == MoveCode.to(move)
+                    && position.makeLegalMove(m)) {
+                position.unmakeMove();
+                rivals[count++] = m;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return has the side to move any legal move, tells check from mate
+     */
+    private boolean hasLegalMove() {
+        int count = position.generateMoves(legal, 0);
+        for (int i = 0; i < count; i++) {
+            if (position.makeLegalMove(legal[i])) {
+                position.unmakeMove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * adds moves and annotations in PGN order, the game keys annotations by the number of moves added before them
+     */
+    private void readAnnotations(PgnGame game, String[] moves) throws IOException {
+        int added = 0;
+        for (int annotations = readVarint(); annotations > 0; annotations--) {
+            int kind = readByte();
+            int ply = readVarint();
+            // a comment comes before the move of its ply, variations and glyphs after it
+            int before = kind == BinaryGameWriter.COMMENT ? ply : ply + 1;
+            if (before < added || before > moves.length) {
+                throw new IOException("corrupt annotation at offset " + offset);
+            }
+            while (added < before) {
+                game.addMove(moves[added++]);
+            }
+            switch (kind) {
+                case BinaryGameWriter.COMMENT -> game.addComment(readString());
+                case BinaryGameWriter.VARIATION -> game.addVariation(readString());
+                case BinaryGameWriter.NAG -> game.addNag(readVarint());
+                default -> throw new IOException("corrupt annotation kind " + kind);
+            }
+        }
+        while (added < moves.length) {
+            game.addMove(moves[added++]);
+        }
+    }
+
+    /**
+     * reads a record into the record buffer
+     * @return false at the end of the file
+     */
+    private boolean readRecord() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return false;
+        }
+        offset++;
+        int size = first & 0x7F;
+        for (int shift = 7; (first & 0x80) != 0; shift += 7) {
+            first = in.read();
+            if (first < 0 || shift > 28) {
+                throw new EOFException("corrupt record length at offset " + offset);
+            }
+            offset++;
+            size |= (first & 0x7F) << shift;
+        }
+        if (size < 0) {
+            throw new IOException("corrupt record length at offset " + offset);
+        }
+        if (size > record.length) {
+            record = new byte[Math.max(size, record.length * 2)];
+        }
+        if (in.readNBytes(record, 0, size) != size) {
+            throw new EOFException("truncated record at offset " + offset);
+        }
+        offset += size;
+        length = size;
+        index = 0;
+        return true;
+    }
+
+    // ---------------------------------- BYTES ----------------------------------
+
+    private int readByte() throws IOException {
+        if (index == length) {
+            throw new EOFException("record ends early at offset " + offset);
+        }
+        return record[index++] & 0xFF;
+    }
+
+    private int readVarint() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = readByte();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("corrupt varint at offset " + offset);
+    }
+
+    private String readString() throws IOException {
+        int size = readVarint();
+        if (size < 0 || size > length - index) {
+            throw new EOFException("string exceeds record at offset " + offset);
+        }
+        String s = new String(record, index, size, StandardCharsets.UTF_8);
+        index += size;
+        return s;
+    }
+
+}
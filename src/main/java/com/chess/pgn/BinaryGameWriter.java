@@ -0,0 +1,205 @@
+package com.chess.pgn;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.MoveCode;
+import com.chess.engine.Position;
+import com.chess.engine.San;
+
+/**
+ * writes games in a compact binary form: a move is stored as its index in the legal move list of the position,
+ * one byte per ply. Tags, comments, variations and annotation glyphs are kept, so reading the games back with
+ * {@link BinaryGameReader} gives the same PGN.
+ * <p>
+ * A file starts with the magic {@code PGNB} and a version byte, followed by one record per game:
+ * <pre>
+ * varint  record length
+ * varint  number of tags, then name and value of each tag
+ * byte    termination marker, 0 if the move text has none
+ * varint  number of plies, then one legal move index per ply
+ * varint  number of annotations, then kind, ply and comment, variation text or glyph of each
+ * </pre>
+ * Strings are UTF-8 prefixed with their length, varints use 7 bits per byte.
+ * <p>
+ * Usage: {@code BinaryGameWriter <in.pgn> <out.pgnb>}
+ */
+public final class BinaryGameWriter implements Closeable {
+
+    static final byte[] MAGIC = {'P', 'G', 'N', 'B'};
+    static final int VERSION = 1;
+    static final String[] RESULTS = {null, "*", "1-0", "0-1", "1/2-1/2"};
+    static final int COMMENT = 0;
+    static final int VARIATION = 1;
+    static final int NAG = 2;
+
+    private final OutputStream out;
+    private final Evaluation evaluation = new Evaluation();
+    private final Position position = new Position(evaluation);
+    private final int[] legal = new int[Position.MAX_MOVES];
+    private byte[] record = new byte[1024];
+    private int length;
+
+    /**
+     * @param out receives the file header and the games, buffered by the caller
+     * @throws IOException if the header can't be written
+     */
+    public BinaryGameWriter(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(MAGIC);
+        out.write(VERSION);
+    }
+
+    /**
+     * @param file binary game file, replaced if it exists
+     * @return writer of the file, has to be closed
+     * @throws IOException if the file can't be created
+     */
+    public static BinaryGameWriter create(Path file) throws IOException {
+        return new BinaryGameWriter(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16));
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BinaryGameWriter <in.pgn> <out.pgnb>");
+            System.exit(2);
+        }
+        long games = 0;
+        try (PgnReader reader = PgnReader.open(Paths.get(args[0]));
+                BinaryGameWriter writer = create(Paths.get(args[1]))) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                try {
+                    writer.write(game);
+                    games++;
+                } catch (IllegalArgumentException e) {
+                    System.err.println("offset " + game.getOffset() + ": " + e.getMessage());
+                }
+            }
+        }
+        System.out.println(games + " games, " + Files.size(Paths.get(args[0])) + " -> " + Files.size(Paths.get(args[1])) + " bytes");
+    }
+
+    /**
+     * replays the game and appends its record
+     * @param game game with a legal main line
+     * @throws IllegalArgumentException if the start position or a move is illegal, nothing is written then
+     * @throws IOException if writing fails
+     */
+    public void write(PgnGame game) throws IOException {
+        length = 0;
+        Map<String, String> tags = game.getTags();
+        writeVarint(tags.size());
+        tags.forEach((name, value) -> {
+            writeString(name);
+            writeString(value);
+        });
+        writeByte(game.isTerminated() ? Arrays.asList(RESULTS).indexOf(game.getResult()) : 0);
+        String fen = game.getTag("FEN");
+        position.copyFrom(Fen.parse(fen == null ? Fen.START : fen, evaluation));
+        List<String> moves = game.getMoves();
+        writeVarint(moves.size());
+        int annotations = 0;
+        for (int ply = 0; ply < moves.size(); ply++) {
+            int move = San.find(position, moves.get(ply), legal);
+            if (move == MoveCode.NONE || move == San.AMBIGUOUS) {
+                throw new IllegalArgumentException((move == MoveCode.NONE ? "illegal move " : "ambiguous move ") + moves.get(ply) + " at ply " + (ply + 1));
+            }
+            writeByte(indexOf(move));
+            position.makeMove(move);
+            annotations += (game.getComment(ply) == null ? 0 : 1) + game.getVariations(ply).size() + game.getNags(ply).size();
+        }
+        annotations += game.getComment(moves.size()) == null ? 0 : 1;
+        writeVarint(annotations);
+        for (int ply = 0; ply <= moves.size(); ply++) {
+            String comment = game.getComment(ply);
+            if (comment != null) {
+                writeByte(COMMENT);
+                writeVarint(ply);
+                writeString(comment);
+            }
+            if (ply == moves.size()) {
+                break;
+            }
+            for (String variation : game.getVariations(ply)) {
+                writeByte(VARIATION);
+                writeVarint(ply);
+                writeString(variation);
+            }
+            for (int nag : game.getNags(ply)) {
+                writeByte(NAG);
+                writeVarint(ply);
+                writeVarint(nag);
+            }
+        }
+        writeVarint(out, length);
+        out.write(record, 0, length);
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * @return index of a move in the legal moves {@link San#find} just generated, the found move is always in front
+     * of entries left from earlier positions
+     */
+    private int indexOf(int move) {
+        for (int i = 0; i < legal.length; i++) {
+            if (legal[i] == move) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("move not generated " + MoveCode.toString(move));
+    }
+
+    // ---------------------------------- BYTES ----------------------------------
+
+    private void writeString(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarint(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, record, length, bytes.length);
+        length += bytes.length;
+    }
+
+    private void writeVarint(int value) {
+        while ((value & ~0x7F) != 0) {
+            writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        writeByte(value);
+    }
+
+    private void writeByte(int value) {
+        ensure(1);
+        record[length++] = (byte) value;
+    }
+
+    private void ensure(int bytes) {
+        if (length + bytes > record.length) {
+            record = Arrays.copyOf(record, Math.max(record.length * 2, length + bytes));
+        }
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.chess.pgn;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * one game read from a PGN file: tag pairs, main line moves in SAN and the annotations of the moves
+ */
+public final class PgnGame {
+
+    // longest line of exported move text
+    private static final int LINE_LENGTH = 80;
+
+    private final long offset;
+    private long length;
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private final List<String> moves = new ArrayList<>();
+    // comments by number of moves played before them, 0 is in front of the first move
+    private final Map<Integer, String> comments = new HashMap<>();
+    // variations and numeric annotation glyphs by index of the move they belong to
+    private final Map<Integer, List<String>> variations = new HashMap<>();
+    private final Map<Integer, List<Integer>> nags = new HashMap<>();
+    private String result;
+
+    /**
+     * @param offset byte offset of the game in its source
+     */
+    public PgnGame(long offset) {
+        this.offset = offset;
+    }
+
+    // ---------------------------------- BUILDING ----------------------------------
+
+    void setLength(long length) {
+        this.length = length;
+    }
+
+    void setTag(String name, String value) {
+        tags.put(name, value);
+    }
+
+    void addMove(String san) {
+        moves.add(san);
+    }
+
+    void addComment(String comment) {
+        comments.merge(moves.size(), comment, (a, b) -> a + " " + b);
+    }
+
+    void addVariation(String variation) {
+        if (!moves.isEmpty()) {
+            variations.computeIfAbsent(moves.size() - 1, i -> new ArrayList<>(1)).add(variation);
+        }
+    }
+
+    void addNag(int nag) {
+        if (!moves.isEmpty()) {
+            nags.computeIfAbsent(moves.size() - 1, i -> new ArrayList<>(1)).add(nag);
+        }
+    }
+
+    void setResult(String result) {
+        this.result = result;
+    }
+
+    // ---------------------------------- EXPORT ----------------------------------
+
+    /**
+     * writes the game as PGN, reading the text back gives an equal game
+     * @return tag pairs and move text with comments, annotation glyphs and variations, lines up to 80 characters
+     */
+    public String toPgn() {
+        StringBuilder pgn = new StringBuilder(64 + 8 * moves.size());
+        tags.forEach((name, value) -> pgn.append('[').append(name).append(" \"")
+                .append(value.replace("\\", "\\\\").replace("\"", "\\\"")).append("\"]\n"));
+        pgn.append('\n');
+        StringBuilder line = new StringBuilder(LINE_LENGTH);
+        int number = 1;
+        boolean black = false;
+        String fen = tags.get("FEN");
+        if (fen != null) {
+            String[] fields = fen.trim().split("\\s+");
+            black = fields.length > 1 && fields[1].equals("b");
+            number = fields.length > 5 && fields[5].matches("\\d{1,6}") ? Math.max(1, Integer.parseInt(fields[5])) : 1;
+        }
+        boolean interrupted = true;
+        for (int ply = 0; ply <= moves.size(); ply++) {
+            String comment = comments.get(ply);
+            if (comment != null) {
+                appendToken(pgn, line, "{" + comment + "}");
+                interrupted = true;
+            }
+            if (ply == moves.size()) {
+                break;
+            }
+            if (!black) {
+                appendToken(pgn, line, number + ".");
+            } else if (interrupted) {
+                appendToken(pgn, line, number + "...");
+            }
+            appendToken(pgn, line, moves.get(ply));
+            for (int nag : getNags(ply)) {
+                appendToken(pgn, line, "$" + nag);
+            }
+            interrupted = false;
+            for (String variation : getVariations(ply)) {
+                appendToken(pgn, line, "(" + variation + ")");
+                interrupted = true;
+            }
+            if (black) {
+                number++;
+            }
+            black = !black;
+        }
+        if (result != null) {
+            appendToken(pgn, line, result);
+        }
+        return pgn.append(line).append('\n').toString();
+    }
+
+    private static void appendToken(StringBuilder pgn, StringBuilder line, String token) {
+        if (line.length() > 0 && line.length() + 1 + token.length() > LINE_LENGTH) {
+            pgn.append(line).append('\n');
+            line.setLength(0);
+        }
+        if (line.length() > 0) {
+            line.append(' ');
+        }
+        line.append(token);
+    }
+
+    // ---------------------------------- GETTERS ----------------------------------
+
+    /**
+     * @return did the move text end with a game termination marker
+     */
+    public boolean isTerminated() {
+        return result != null;
+    }
+
+    /**
+     * @return byte offset of the game in its source
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * @return number of bytes of the game in its source, including trailing whitespace
+     */
+    public long getLength() {
+        return length;
+    }
+
+    /**
+     * @param name tag name, e.g. White
+     * @return tag value or null if the tag is missing
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * @return tag pairs in file order
+     */
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * @return main line moves in SAN, without move numbers and annotation suffixes
+     */
+    public List<String> getMoves() {
+        return moves;
+    }
+
+    /**
+     * @return number of half moves of the main line
+     */
+    public int getPlyCount() {
+        return moves.size();
+    }
+
+    /**
+     * @param ply number of moves played before the comment, 0 for the comment in front of the first move
+     * @return comment text or null
+     */
+    public String getComment(int ply) {
+        return comments.get(ply);
+    }
+
+    /**
+     * @param move index of a main line move
+     * @return move text of the variations replacing the move, may contain nested variations and comments
+     */
+    public List<String> getVariations(int move) {
+        return variations.getOrDefault(move, Collections.emptyList());
+    }
+
+    /**
+     * @param move index of a main line move
+     * @return numeric annotation glyphs of the move, move suffixes like !? included
+     */
+    public List<Integer> getNags(int move) {
+        return nags.getOrDefault(move, Collections.emptyList());
+    }
+
+    /**
+     * @return game termination marker of the move text, the Result tag if the move text has none
+     */
+    public String getResult() {
+        if (result != null) {
+            return result;
+        }
+        return tags.getOrDefault("Result", "*");
+    }
+
+}
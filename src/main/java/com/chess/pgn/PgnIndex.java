@@ -0,0 +1,343 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * on-disk index of a PGN file for random access to its games. Next to {@code games.pgn} it keeps
+ * {@code games.pgn.idx} with a fixed size record per game (byte offset, length, ply count) and
+ * {@code games.pgn.tags} with the key tags of the games, so game n is found without reading the games before it.
+ * The PGN itself is read through memory mapped segments.
+ * <p>
+ * Both index files are only appended to. When the PGN grows, only the new games are read; when it changed before
+ * the indexed end, the index is rebuilt.
+ */
+public final class PgnIndex implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(String.class.getName());
+
+    /**
+     * tags kept in the index, in this order
+     */
+    public static final String[] KEY_TAGS = {"White", "Black", "Result", "Date", "Event"};
+
+    private static final long MAGIC = 0x50474E_494E4458L;
+    private static final int VERSION = 1;
+    // magic, version, count, indexed bytes, checksum, last game incomplete
+    private static final int HEADER_BYTES = 32;
+    // offset, length, plies, tags offset, tags length, reserved
+    private static final int RECORD_BYTES = 32;
+    // bytes in front of the indexed end that have to be unchanged for an incremental update
+    private static final int CHECKED_BYTES = 4096;
+    private static final char SEPARATOR = '\u001F';
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+    // games are read from 1 GB segments, overlapping so games crossing a segment end are usually in one mapping
+    private static final long SEGMENT_BYTES = 1L << 30;
+    private static final long SEGMENT_OVERLAP = 1L << 24;
+
+    private final FileChannel pgn;
+    private final FileChannel records;
+    private final FileChannel tags;
+    private MappedByteBuffer recordMap;
+    private MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private long pgnSize;
+    private int count;
+    private long indexedBytes;
+    private boolean incomplete;
+
+    private PgnIndex(Path file) throws IOException {
+        pgn = FileChannel.open(file, StandardOpenOption.READ);
+        records = FileChannel.open(sibling(file, ".idx"), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        tags = FileChannel.open(sibling(file, ".tags"), StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+    }
+
+    /**
+     * opens the index of a PGN file, creating or updating it as needed
+     * @param file PGN file
+     * @return index, has to be closed
+     * @throws IOException if a file can't be read or written
+     */
+    public static PgnIndex open(Path file) throws IOException {
+        PgnIndex index = new PgnIndex(file);
+        try {
+            index.readHeader();
+            index.update();
+        } catch (IOException e) {
+            index.close();
+            throw e;
+        }
+        return index;
+    }
+
+    private static Path sibling(Path file, String suffix) {
+        return file.resolveSibling(file.getFileName() + suffix);
+    }
+
+    // ---------------------------------- INDEXING ----------------------------------
+
+    /**
+     * indexes games added to the PGN file since the last update, rebuilds the index if earlier bytes changed
+     * @return number of games added to the index
+     * @throws IOException if a file can't be read or written
+     */
+    public int update() throws IOException {
+        pgnSize = pgn.size();
+        if (pgnSize < indexedBytes || checksum(indexedBytes) != readChecksum()) {
+            LOG.log(Level.INFO, "SYSTEM: pgn file changed, rebuilding index");
+            count = 0;
+            indexedBytes = 0;
+            incomplete = false;
+            records.truncate(HEADER_BYTES);
+            tags.truncate(0);
+            writeHeader();
+        } else if (records.size() < HEADER_BYTES) {
+            writeHeader();
+        }
+        int before = count;
+        if (pgnSize > indexedBytes) {
+            if (incomplete) {
+                // last game had no end yet, it is read again
+                count--;
+                incomplete = false;
+            }
+            readGames();
+        }
+        recordMap = records.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES + (long) count * RECORD_BYTES);
+        recordMap.order(ByteOrder.LITTLE_ENDIAN);
+        synchronized (this) {
+            segments = new MappedByteBuffer[(int) ((pgnSize + SEGMENT_BYTES - 1) / SEGMENT_BYTES)];
+        }
+        return count - before;
+    }
+
+    private void readGames() throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer text = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+        long tagEnd = 0;
+        if (count > 0) {
+            record.limit(RECORD_BYTES);
+            records.read(record, HEADER_BYTES + (long) (count - 1) * RECORD_BYTES);
+            tagEnd = record.getLong(16) + record.getInt(24);
+            record.clear();
+        }
+        long recordEnd = HEADER_BYTES + (long) count * RECORD_BYTES;
+        long textEnd = tagEnd;
+        pgn.position(indexedBytes);
+        PgnReader reader = new PgnReader(pgn, StandardCharsets.UTF_8, indexedBytes);
+        PgnGame game;
+        PgnGame last = null;
+        while ((game = reader.next()) != null) {
+            byte[] values = tagText(game);
+            if (record.remaining() < RECORD_BYTES) {
+                recordEnd = flush(records, record, recordEnd);
+            }
+            if (text.remaining() < values.length) {
+                textEnd = flush(tags, text, textEnd);
+                if (values.length > text.capacity()) {
+                    text = ByteBuffer.allocate(values.length);
+                }
+            }
+            record.putLong(game.getOffset()).putInt((int) game.getLength()).putInt(game.getPlyCount())
+                    .putLong(tagEnd).putInt(values.length).putInt(0);
+            text.put(values);
+            tagEnd += values.length;
+            count++;
+            last = game;
+        }
+        flush(records, record, recordEnd);
+        flush(tags, text, textEnd);
+        indexedBytes = reader.getOffset();
+        if (last != null && !last.isTerminated()) {
+            // the file may still be written, so the game is read again when it grew
+            incomplete = true;
+            indexedBytes = last.getOffset();
+        }
+        records.truncate(HEADER_BYTES + (long) count * RECORD_BYTES);
+        tags.truncate(tagEnd);
+        writeHeader();
+    }
+
+    private static long flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return position;
+    }
+
+    private static byte[] tagText(PgnGame game) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < KEY_TAGS.length; i++) {
+            String value = KEY_TAGS[i].equals("Result") ? game.getResult() : game.getTag(KEY_TAGS[i]);
+            if (i > 0) {
+                text.append(SEPARATOR);
+            }
+            text.append(value == null ? "" : value);
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (records.read(header, 0) < HEADER_BYTES || header.getLong(0) != MAGIC || header.getInt(8) != VERSION) {
+            // missing or foreign index, built from scratch
+            count = 0;
+            indexedBytes = 0;
+            return;
+        }
+        count = header.getInt(12);
+        indexedBytes = header.getLong(16);
+        incomplete = header.getInt(28) != 0;
+    }
+
+    private int readChecksum() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        records.read(header, 0);
+        return header.getInt(24);
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(MAGIC).putInt(VERSION).putInt(count).putLong(indexedBytes)
+                .putInt(checksum(indexedBytes)).putInt(incomplete ? 1 : 0).flip();
+        records.write(header, 0);
+    }
+
+    /**
+     * @return checksum of the bytes in front of end
+     */
+    private int checksum(long end) throws IOException {
+        int length = (int) Math.min(end, CHECKED_BYTES);
+        ByteBuffer bytes = ByteBuffer.allocate(length);
+        while (bytes.hasRemaining() && pgn.read(bytes, end - length + bytes.position()) > 0) {
+            // reads until full
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes.flip());
+        return (int) crc.getValue();
+    }
+
+    // ---------------------------------- ACCESS ----------------------------------
+
+    /**
+     * @return number of indexed games
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * @param game index of the game, 0 for the first one
+     * @return byte offset of the game in the PGN file
+     */
+    public long getOffset(int game) {
+        return recordLong(game, 0);
+    }
+
+    /**
+     * @param game index of the game
+     * @return number of half moves of the main line
+     */
+    public int getPlyCount(int game) {
+        return recordInt(game, 12);
+    }
+
+    /**
+     * @param game index of the game
+     * @return values of {@link #KEY_TAGS}, empty for missing tags
+     * @throws IOException if the tag file can't be read
+     */
+    public String[] getTags(int game) throws IOException {
+        ByteBuffer text = ByteBuffer.allocate(recordInt(game, 24));
+        long position = recordLong(game, 16);
+        while (text.hasRemaining() && tags.read(text, position + text.position()) > 0) {
+            // reads until full
+        }
+        String[] values = new String(text.array(), 0, text.position(), StandardCharsets.UTF_8).split(String.valueOf(SEPARATOR), -1);
+        return values.length == KEY_TAGS.length ? values : Arrays.copyOf(values, KEY_TAGS.length);
+    }
+
+    /**
+     * @param game index of the game
+     * @param tag one of {@link #KEY_TAGS}
+     * @return tag value, empty if the game has none
+     * @throws IOException if the tag file can't be read
+     */
+    public String getTag(int game, String tag) throws IOException {
+        int i = Arrays.asList(KEY_TAGS).indexOf(tag);
+        if (i < 0) {
+            throw new IllegalArgumentException("not an index tag: " + tag);
+        }
+        return getTags(game)[i];
+    }
+
+    /**
+     * reads one game from the mapped PGN file without reading the games in front of it
+     * @param game index of the game
+     * @return parsed game
+     * @throws IOException if the PGN file can't be mapped
+     */
+    public PgnGame getGame(int game) throws IOException {
+        long offset = getOffset(game);
+        int length = recordInt(game, 8);
+        PgnReader reader = new PgnReader(map(offset, length), StandardCharsets.UTF_8, offset);
+        return reader.next();
+    }
+
+    /**
+     * @return bytes of the PGN file from offset on, thread safe
+     */
+    private ByteBuffer map(long offset, int length) throws IOException {
+        int segment = (int) (offset / SEGMENT_BYTES);
+        long start = segment * SEGMENT_BYTES;
+        MappedByteBuffer mapped;
+        synchronized (this) {
+            mapped = segments[segment];
+            if (mapped == null) {
+                mapped = pgn.map(FileChannel.MapMode.READ_ONLY, start, Math.min(pgnSize - start, SEGMENT_BYTES + SEGMENT_OVERLAP));
+                segments[segment] = mapped;
+            }
+        }
+        if (offset + length > start + mapped.capacity()) {
+            // longer than the overlap, mapped on its own
+            return pgn.map(FileChannel.MapMode.READ_ONLY, offset, length);
+        }
+        return mapped.slice((int) (offset - start), length);
+    }
+
+    private long recordLong(int game, int field) {
+        checkIndex(game);
+        return recordMap == null ? 0 : recordMap.getLong(HEADER_BYTES + game * RECORD_BYTES + field);
+    }
+
+    private int recordInt(int game, int field) {
+        checkIndex(game);
+        return recordMap == null ? 0 : recordMap.getInt(HEADER_BYTES + game * RECORD_BYTES + field);
+    }
+
+    private void checkIndex(int game) {
+        if (game < 0 || game >= count) {
+            throw new IndexOutOfBoundsException("no game " + game + " in index of " + count + " games");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (pgn; records; tags) {
+            recordMap = null;
+        }
+    }
+
+}
@@ -0,0 +1,370 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * streaming reader for PGN files holding any number of games. Bytes are read through a fixed buffer and only the
+ * game currently read is kept, so databases of any size are read with bounded memory. Syntax characters are ASCII,
+ * tag values and comments are decoded with the charset of the reader.
+ */
+public final class PgnReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    // longest tag value, comment or variation kept, the rest is skipped so a missing closing brace can't eat the heap
+    private static final int MAX_TEXT = 1 << 16;
+    // move suffix annotations and their numeric annotation glyphs
+    private static final String[] SUFFIXES = {"!", "?", "!!", "??", "!?", "?!"};
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final Charset charset;
+    private long offset;
+    private boolean started;
+    // last byte read, a line feed at the start so the first line begins in column 1
+    private int last = '\n';
+    private byte[] text = new byte[256];
+    private int textLength;
+
+    /**
+     * @param channel source of PGN bytes, read from its current position
+     * @param charset charset of tag values and comments
+     */
+    public PgnReader(ReadableByteChannel channel, Charset charset) {
+        this(channel, charset, 0);
+    }
+
+    /**
+     * @param channel source of PGN bytes, read from its current position
+     * @param charset charset of tag values and comments
+     * @param start offset of the current channel position in the source, games report offsets from there
+     */
+    public PgnReader(ReadableByteChannel channel, Charset charset, long start) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        this.charset = charset;
+        this.offset = start;
+    }
+
+    /**
+     * reads PGN bytes already in memory, e.g. a mapped file region
+     * @param bytes remaining bytes of the buffer are read
+     * @param charset charset of tag values and comments
+     * @param start offset of the buffer position in the source, games report offsets from there
+     */
+    public PgnReader(ByteBuffer bytes, Charset charset, long start) {
+        this.channel = null;
+        this.buffer = bytes.slice();
+        this.charset = charset;
+        this.offset = start;
+    }
+
+    /**
+     * @param file PGN file, tag values and comments in UTF-8
+     * @return reader of the file, has to be closed
+     * @throws IOException if the file can't be opened
+     */
+    public static PgnReader open(Path file) throws IOException {
+        return new PgnReader(FileChannel.open(file, StandardOpenOption.READ), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param pgn PGN text
+     * @return first game of the text or null if it holds none
+     */
+    public static PgnGame parse(String pgn) {
+        PgnReader reader = new PgnReader(ByteBuffer.wrap(pgn.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, 0);
+        try {
+            return reader.next();
+        } catch (IOException e) {
+            // in memory, nothing to fail
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * reads the next game
+     * @return next game or null at the end of the input
+     * @throws IOException if reading fails
+     */
+    public PgnGame next() throws IOException {
+        if (!started) {
+            started = true;
+            skipByteOrderMark();
+        }
+        PgnGame game = null;
+        boolean moveText = false;
+        while (true) {
+            skipWhitespace();
+            int c = peek();
+            if (c < 0) {
+                break;
+            }
+            if (c == '%' && last == '\n') {
+                // escaped line, not part of any game
+                skipLine();
+                continue;
+            }
+            if (game == null) {
+                game = new PgnGame(offset);
+            }
+            if (c == '[') {
+                if (moveText) {
+                    // tags of the next game, this one has no termination marker
+                    break;
+                }
+                readTag(game);
+                continue;
+            }
+            moveText = true;
+            if (readMoveText(game, c)) {
+                skipWhitespace();
+                break;
+            }
+        }
+        if (game != null) {
+            game.setLength(offset - game.getOffset());
+        }
+        return game;
+    }
+
+    /**
+     * @return offset of the next unread byte, the start of the next game after {@link #next()}
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    // ---------------------------------- SYNTAX ----------------------------------
+
+    private void readTag(PgnGame game) throws IOException {
+        read();
+        skipWhitespace();
+        textLength = 0;
+        int c;
+        while ((c = peek()) > ' ' && c != '"' && c != ']') {
+            append(read());
+        }
+        String name = text();
+        skipWhitespace();
+        textLength = 0;
+        if (peek() == '"') {
+            read();
+            while ((c = read()) >= 0 && c != '"') {
+                append(c == '\\' ? read() : c);
+            }
+        }
+        String value = text();
+        while ((c = read()) >= 0 && c != ']' && c != '\n') {
+            // skips anything behind the value
+        }
+        if (!name.isEmpty()) {
+            game.setTag(name, value);
+        }
+    }
+
+    /**
+     * reads one element of the move text
+     * @return true if the game ended
+     */
+    private boolean readMoveText(PgnGame game, int c) throws IOException {
+        switch (c) {
+            case '{' -> {
+                read();
+                textLength = 0;
+                while ((c = read()) >= 0 && c != '}') {
+                    append(c);
+                }
+                game.addComment(text().trim());
+            }
+            case ';' -> {
+                // comment up to the end of the line
+                read();
+                textLength = 0;
+                while ((c = read()) >= 0 && c != '\n') {
+                    append(c);
+                }
+                game.addComment(text().trim());
+            }
+            case '(' -> {
+                read();
+                readVariation();
+                game.addVariation(text().trim());
+            }
+            case '$' -> {
+                read();
+                int nag = 0;
+                while ((c = peek()) >= '0' && c <= '9') {
+                    nag = nag * 10 + read() - '0';
+                }
+                game.addNag(nag);
+            }
+            case '!', '?' -> {
+                textLength = 0;
+                while ((c = peek()) == '!' || c == '?') {
+                    append(read());
+                }
+                int nag = Arrays.asList(SUFFIXES).indexOf(text()) + 1;
+                if (nag > 0) {
+                    game.addNag(nag);
+                }
+            }
+            case '*' -> {
+                read();
+                game.setResult("*");
+                return true;
+            }
+            // an escape character only starts an escaped line in column 1
+            case '.', ')', '}', ']', '%' -> read();
+            default -> {
+                return readSymbol(game);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * reads variation text up to its closing parenthesis into the text buffer, nested ones included
+     */
+    private void readVariation() throws IOException {
+        textLength = 0;
+        int depth = 1;
+        int c;
+        while ((c = read()) >= 0) {
+            if (c == '{') {
+                // parentheses in comments don't count
+                do {
+                    append(c);
+                } while (c != '}' && (c = read()) >= 0);
+                continue;
+            }
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && --depth == 0) {
+                return;
+            }
+            append(c);
+        }
+    }
+
+    /**
+     * reads move number, SAN move or game termination marker
+     * @return true if the game ended
+     */
+    private boolean readSymbol(PgnGame game) throws IOException {
+        textLength = 0;
+        int c;
+        while ((c = peek()) > ' ' && "{}()[];$.!?".indexOf(c) < 0) {
+            append(read());
+        }
+        if (textLength == 0) {
+            // control or other stray byte
+            read();
+            return false;
+        }
+        String symbol = text();
+        if (symbol.equals("1-0") || symbol.equals("0-1") || symbol.equals("1/2-1/2")) {
+            game.setResult(symbol);
+            return true;
+        }
+        if (isNumber()) {
+            return false;
+        }
+        // castling written with zeros
+        game.addMove(symbol.startsWith("0-0") ? symbol.replace('0', 'O') : symbol);
+        return false;
+    }
+
+    private boolean isNumber() {
+        for (int i = 0; i < textLength; i++) {
+            if (text[i] < '0' || text[i] > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ---------------------------------- BYTES ----------------------------------
+
+    private void skipByteOrderMark() throws IOException {
+        if (peek() == 0xEF) {
+            read();
+            read();
+            read();
+            last = '\n';
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int c;
+        while ((c = read()) >= 0 && c != '\n') {
+            // skips up to and including the line feed
+        }
+    }
+
+    private void skipWhitespace() throws IOException {
+        int c;
+        while ((c = peek()) >= 0 && c <= ' ') {
+            read();
+        }
+    }
+
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        offset++;
+        last = buffer.get() & 0xFF;
+        return last;
+    }
+
+    private boolean fill() throws IOException {
+        if (channel == null) {
+            return false;
+        }
+        buffer.clear();
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        buffer.flip();
+        return n > 0;
+    }
+
+    private void append(int c) {
+        if (c < 0 || textLength == MAX_TEXT) {
+            return;
+        }
+        if (textLength == text.length) {
+            text = Arrays.copyOf(text, Math.min(MAX_TEXT, text.length * 2));
+        }
+        text[textLength++] = (byte) c;
+    }
+
+    private String text() {
+        return new String(text, 0, textLength, charset);
+    }
+
+}
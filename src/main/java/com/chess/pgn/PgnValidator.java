@@ -0,0 +1,319 @@
+package com.chess.pgn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.MoveCode;
+import com.chess.engine.Position;
+import com.chess.engine.San;
+
+/**
+ * headless bulk check of a PGN database: every game is replayed move by move against the legal moves of the engine
+ * position, illegal and ambiguous moves are reported. The file is cut into chunks at game starts, every worker reads
+ * and replays its chunks on its own, so throughput grows with the number of cores.
+ * <p>
+ * Usage: {@code PgnValidator <file.pgn> [threads]}
+ */
+public final class PgnValidator {
+
+    private static final Logger LOG = Logger.getLogger(String.class.getName());
+
+    // chunks per thread, so threads that finish early pick up more work
+    private static final int CHUNKS_PER_THREAD = 8;
+    private static final byte[] GAME_START = "\n[Event ".getBytes(StandardCharsets.US_ASCII);
+    // issues kept for the report, the rest is only counted
+    private static final int MAX_ISSUES = 1000;
+
+    private final int threads;
+    private final Evaluation evaluation = new Evaluation();
+
+    /**
+     * @param threads number of worker threads, 0 for all cores
+     */
+    public PgnValidator(int threads) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: PgnValidator <file.pgn> [threads]");
+            System.exit(2);
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 0;
+        Report report = new PgnValidator(threads).validate(Paths.get(args[0]));
+        System.out.println(report);
+        System.exit(report.getInvalidGames() == 0 ? 0 : 1);
+    }
+
+    /**
+     * replays all games of a PGN file
+     * @param file PGN database
+     * @return counts, results and problems found
+     * @throws IOException if the file can't be read
+     */
+    public Report validate(Path file) throws IOException {
+        long start = System.nanoTime();
+        long[] bounds = findChunks(file, threads * CHUNKS_PER_THREAD);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "pgn-validator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Report report = new Report();
+        try {
+            List<Future<Report>> chunks = new ArrayList<>();
+            for (int i = 0; i + 1 < bounds.length; i++) {
+                long from = bounds[i];
+                long to = bounds[i + 1];
+                chunks.add(executor.submit(() -> validateChunk(file, from, to)));
+            }
+            for (Future<Report> chunk : chunks) {
+                report.add(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            LOG.log(Level.SEVERE, e.getMessage());
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IOException("validation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        report.bytes = bounds[bounds.length - 1];
+        report.nanos = System.nanoTime() - start;
+        return report;
+    }
+
+    /**
+     * @return start offsets of the chunks and the file size, every chunk but the first one starts at an Event tag
+     */
+    private static long[] findChunks(Path file, int chunks) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = new long[chunks + 1];
+            int n = 1;
+            for (int i = 1; i < chunks; i++) {
+                long start = findGameStart(channel, Math.max(bounds[n - 1] + 1, size * i / chunks));
+                if (start < size) {
+                    bounds[n++] = start;
+                }
+            }
+            bounds[n++] = size;
+            long[] result = new long[n];
+            System.arraycopy(bounds, 0, result, 0, n);
+            return result;
+        }
+    }
+
+    private static long findGameStart(FileChannel channel, long from) throws IOException {
+        ByteBuffer window = ByteBuffer.allocate(1 << 16);
+        long position = from - 1;
+        int matched = 0;
+        while (channel.read(window.clear(), position) > 0) {
+            window.flip();
+            while (window.hasRemaining()) {
+                byte b = window.get();
+                position++;
+                matched = b == GAME_START[matched] ? matched + 1 : (b == GAME_START[0] ? 1 : 0);
+                if (matched == GAME_START.length) {
+                    // offset of the opening bracket
+                    return position - GAME_START.length + 1;
+                }
+            }
+        }
+        return channel.size();
+    }
+
+    private Report validateChunk(Path file, long from, long to) throws IOException {
+        Report report = new Report();
+        Position position = new Position(evaluation);
+        int[] legal = new int[Position.MAX_MOVES];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(from);
+            PgnReader reader = new PgnReader(channel, StandardCharsets.UTF_8, from);
+            PgnGame game;
+            while ((game = reader.next()) != null && game.getOffset() < to) {
+                replay(game, position, legal, report);
+            }
+        }
+        return report;
+    }
+
+    /**
+     * replays one game and adds it to the report
+     */
+    private void replay(PgnGame game, Position position, int[] legal, Report report) {
+        report.games++;
+        report.results.merge(game.getResult(), 1L, Long::sum);
+        String fen = game.getTag("FEN");
+        try {
+            position.copyFrom(Fen.parse(fen == null ? Fen.START : fen, evaluation));
+        } catch (IllegalArgumentException e) {
+            report.addIssue(new Issue(game, 0, fen, "invalid FEN"));
+            return;
+        }
+        List<String> moves = game.getMoves();
+        for (int ply = 0; ply < moves.size(); ply++) {
+            int move = San.find(position, moves.get(ply), legal);
+            if (move == MoveCode.NONE || move == San.AMBIGUOUS) {
+                report.plies += ply;
+                report.addIssue(new Issue(game, ply, moves.get(ply), move == MoveCode.NONE ? "illegal move" : "ambiguous move"));
+                return;
+            }
+            position.makeMove(move);
+        }
+        report.plies += moves.size();
+    }
+
+    // ---------------------------------- RESULTS ----------------------------------
+
+    /**
+     * a move that could not be replayed
+     */
+    public static final class Issue {
+
+        private final long offset;
+        private final String white;
+        private final String black;
+        private final int ply;
+        private final String move;
+        private final String problem;
+
+        Issue(PgnGame game, int ply, String move, String problem) {
+            this.offset = game.getOffset();
+            this.white = game.getTag("White");
+            this.black = game.getTag("Black");
+            this.ply = ply;
+            this.move = move;
+            this.problem = problem;
+        }
+
+        /**
+         * @return byte offset of the game in the file
+         */
+        public long getOffset() {
+            return offset;
+        }
+
+        /**
+         * @return index of the half move in the game
+         */
+        public int getPly() {
+            return ply;
+        }
+
+        public String getMove() {
+            return move;
+        }
+
+        public String getProblem() {
+            return problem;
+        }
+
+        @Override
+        public String toString() {
+            return "offset " + offset + " (" + white + " - " + black + ") ply " + (ply + 1) + ": " + problem + " " + move;
+        }
+
+    }
+
+    /**
+     * totals of a validation run
+     */
+    public static final class Report {
+
+        private long games;
+        private long plies;
+        private long invalidGames;
+        private long bytes;
+        private long nanos;
+        private final Map<String, Long> results = new TreeMap<>();
+        private final List<Issue> issues = new ArrayList<>();
+
+        private void addIssue(Issue issue) {
+            invalidGames++;
+            if (issues.size() < MAX_ISSUES) {
+                issues.add(issue);
+            }
+        }
+
+        private void add(Report other) {
+            games += other.games;
+            plies += other.plies;
+            invalidGames += other.invalidGames;
+            other.results.forEach((result, n) -> results.merge(result, n, Long::sum));
+            for (Issue issue : other.issues) {
+                if (issues.size() < MAX_ISSUES) {
+                    issues.add(issue);
+                }
+            }
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        /**
+         * @return number of half moves replayed
+         */
+        public long getPlies() {
+            return plies;
+        }
+
+        /**
+         * @return number of games with an illegal or ambiguous move or an invalid start position
+         */
+        public long getInvalidGames() {
+            return invalidGames;
+        }
+
+        /**
+         * @return number of games by termination marker
+         */
+        public Map<String, Long> getResults() {
+            return results;
+        }
+
+        /**
+         * @return first problems found, in file order
+         */
+        public List<Issue> getIssues() {
+            return issues;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = Math.max(1, nanos) / 1e9;
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("%d games, %d plies, %d invalid games in %.2f s%n", games, plies, invalidGames, seconds));
+            text.append(String.format("%.0f games/s, %.0f plies/s, %.1f MB/s%n", games / seconds, plies / seconds, bytes / seconds / 1e6));
+            text.append("results ").append(results);
+            for (Issue issue : issues) {
+                text.append(System.lineSeparator()).append(issue);
+            }
+            return text.toString();
+        }
+
+    }
+
+}
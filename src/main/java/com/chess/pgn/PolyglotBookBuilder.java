@@ -0,0 +1,170 @@
+package com.chess.pgn;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.MoveCode;
+import com.chess.engine.PolyglotBook;
+import com.chess.engine.Position;
+import com.chess.engine.San;
+
+/**
+ * builds a {@link PolyglotBook} from a PGN collection. Every move of the first plies is scored for the side that
+ * played it, 2 for a win and 1 for a draw, the weight of a book move is its total score. Moves played in fewer games
+ * than the minimum are left out, moves that never scored are kept with weight 0 and only played when no move of the
+ * position scored, as in a collection of unfinished games.
+ * <p>
+ * Usage: {@code PolyglotBookBuilder <games.pgn> <book.bin> [plies] [min games]}
+ */
+public final class PolyglotBookBuilder {
+
+    private static final Logger LOG = Logger.getLogger(String.class.getName());
+
+    public static final int DEFAULT_PLIES = 24;
+    public static final int DEFAULT_MIN_GAMES = 3;
+
+    private static final int MAX_WEIGHT = 0xFFFF;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    private final int plies;
+    private final int minGames;
+    // book move counts by Polyglot key and move: games, score
+    private final Map<Long, Map<Integer, long[]>> moves = new HashMap<>();
+    private final Evaluation evaluation = new Evaluation();
+    private final Position start = Fen.parse(Fen.START, evaluation);
+    private final Position position = new Position(evaluation);
+    private final int[] legal = new int[Position.MAX_MOVES];
+
+    /**
+     * @param plies plies of every game added to the book
+     * @param minGames number of games a move needs to be played in
+     */
+    public PolyglotBookBuilder(int plies, int minGames) {
+        this.plies = plies;
+        this.minGames = minGames;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: PolyglotBookBuilder <games.pgn> <book.bin> [plies] [min games]");
+            System.exit(2);
+        }
+        PolyglotBookBuilder builder = new PolyglotBookBuilder(args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PLIES,
+                args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_MIN_GAMES);
+        long games = builder.addGames(Paths.get(args[0]));
+        int entries = builder.write(Paths.get(args[1]));
+        System.out.println(games + " games, " + entries + " book entries");
+    }
+
+    /**
+     * adds the games of a PGN file
+     * @param pgn PGN collection
+     * @return number of games added
+     * @throws IOException if the file can't be read
+     */
+    public long addGames(Path pgn) throws IOException {
+        long games = 0;
+        try (PgnReader reader = PgnReader.open(pgn)) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                if (add(game)) {
+                    games++;
+                }
+            }
+        }
+        return games;
+    }
+
+    /**
+     * adds the first plies of a game, up to an illegal move if there is one
+     * @param game game to add
+     * @return false if the start position of the game is invalid
+     */
+    public boolean add(PgnGame game) {
+        String fen = game.getTag("FEN");
+        try {
+            position.copyFrom(fen == null ? start : Fen.parse(fen, evaluation));
+        } catch (IllegalArgumentException e) {
+            LOG.log(Level.INFO, "SYSTEM: skipping game with invalid FEN at offset {0}", game.getOffset());
+            return false;
+        }
+        String result = game.getResult();
+        int whiteScore = result.equals("1-0") ? 2 : (result.equals("1/2-1/2") ? 1 : 0);
+        int blackScore = result.equals("0-1") ? 2 : (result.equals("1/2-1/2") ? 1 : 0);
+        List<String> sans = game.getMoves();
+        for (int ply = 0; ply < plies && ply < sans.size(); ply++) {
+            int move = San.find(position, sans.get(ply), legal);
+            if (move == MoveCode.NONE || move == San.AMBIGUOUS) {
+                break;
+            }
+            long[] counts = moves.computeIfAbsent(PolyglotBook.key(position), k -> new HashMap<>(4))
+                    .computeIfAbsent(PolyglotBook.encode(move), m -> new long[2]);
+            counts[0]++;
+            counts[1] += position.getSideToMove() == Position.WHITE ? whiteScore : blackScore;
+            position.makeMove(move);
+        }
+        return true;
+    }
+
+    /**
+     * writes the book, entries sorted by key and the moves of a position by weight
+     * @param book file to write, replaced if it exists
+     * @return number of entries written
+     * @throws IOException if the file can't be written
+     */
+    public int write(Path book) throws IOException {
+        long maxScore = 1;
+        for (Map<Integer, long[]> position : moves.values()) {
+            for (long[] counts : position.values()) {
+                maxScore = Math.max(maxScore, counts[1]);
+            }
+        }
+        // weights are 16 bit, large collections are scaled down
+        double scale = Math.min(1.0, (double) MAX_WEIGHT / maxScore);
+        List<Long> keys = new ArrayList<>(moves.keySet());
+        keys.sort(Long::compareUnsigned);
+        int entries = 0;
+        try (FileChannel out = FileChannel.open(book, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES);
+            for (long key : keys) {
+                List<Map.Entry<Integer, long[]>> candidates = new ArrayList<>(moves.get(key).entrySet());
+                candidates.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+                for (Map.Entry<Integer, long[]> candidate : candidates) {
+                    long[] counts = candidate.getValue();
+                    int weight = (int) Math.round(counts[1] * scale);
+                    if (counts[0] < minGames) {
+                        continue;
+                    }
+                    if (buffer.remaining() < PolyglotBook.ENTRY_BYTES) {
+                        flush(out, buffer);
+                    }
+                    buffer.putLong(key).putShort((short) (int) candidate.getKey()).putShort((short) weight).putInt(0);
+                    entries++;
+                }
+            }
+            flush(out, buffer);
+        }
+        return entries;
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+}
@@ -0,0 +1,614 @@
+package com.chess.pgn;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.MoveCode;
+import com.chess.engine.Position;
+import com.chess.engine.San;
+
+/**
+ * opening explorer over a PGN collection: for every position reached in the first plies of the games it holds how
+ * many games reached it, their results and the moves played next. Positions are identified by the Zobrist key of
+ * {@link Position}, the same key {@link com.chess.root.Board#getZobristKey()} returns.
+ * <p>
+ * The file holds a 32 byte header and one 32 byte record per position and next move (key, move, games, white wins,
+ * draws, black wins, reserved), little-endian and sorted by key and move. It is memory mapped and a position is
+ * found by binary search, so a lookup costs a few page reads whatever the size of the collection.
+ * <p>
+ * Usage: {@code PositionDatabase <games.pgn> <positions.db> [plies]}
+ */
+public final class PositionDatabase implements Closeable {
+
+    private static final Logger LOG = Logger.getLogger(String.class.getName());
+
+    /**
+     * plies of every game indexed by default, enough for the opening
+     */
+    public static final int DEFAULT_PLIES = 40;
+
+    private static final long MAGIC = 0x504F5349_54494F4EL;
+    private static final int VERSION = 1;
+    // magic, version, plies, games, positions
+    private static final int HEADER_BYTES = 32;
+    // key, move, games, white wins, draws, black wins, reserved
+    private static final int RECORD_BYTES = 32;
+    // records per mapped segment, a bit less than 1 GB
+    private static final int SEGMENT_RECORDS = (1 << 30) / RECORD_BYTES;
+    // records collected in memory before a sorted run is written to disk
+    private static final int RUN_RECORDS = 1 << 20;
+    private static final int WRITE_BUFFER_BYTES = 1 << 16;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int plies;
+    private final long games;
+    private final long records;
+
+    private PositionDatabase(FileChannel channel) throws IOException {
+        this.channel = channel;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (channel.read(header, 0) < HEADER_BYTES || header.getLong(0) != MAGIC || header.getInt(8) != VERSION) {
+            throw new IOException("no position database");
+        }
+        plies = header.getInt(12);
+        games = header.getLong(16);
+        records = header.getLong(24);
+        if (channel.size() < HEADER_BYTES + records * RECORD_BYTES) {
+            throw new IOException("truncated position database");
+        }
+        segments = new MappedByteBuffer[(int) ((records + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS)];
+        for (int i = 0; i < segments.length; i++) {
+            long first = (long) i * SEGMENT_RECORDS;
+            long length = Math.min(records - first, SEGMENT_RECORDS) * RECORD_BYTES;
+            segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + first * RECORD_BYTES, length);
+            segments[i].order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    /**
+     * @param file database written by {@link #build}
+     * @return database, has to be closed
+     * @throws IOException if the file can't be read or is no position database
+     */
+    public static PositionDatabase open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new PositionDatabase(channel);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: PositionDatabase <games.pgn> <positions.db> [plies]");
+            System.exit(2);
+        }
+        long start = System.nanoTime();
+        long count = build(Paths.get(args[0]), Paths.get(args[1]), args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_PLIES);
+        System.out.printf("%d games in %.2f s%n", count, (System.nanoTime() - start) / 1e9);
+    }
+
+    // ---------------------------------- LOOKUP ----------------------------------
+
+    /**
+     * @param key Zobrist key of the position
+     * @return games that reached the position and the moves played next, most played first; no games if the
+     * position is unknown
+     */
+    public Stats lookup(long key) {
+        Stats position = new Stats(MoveCode.NONE);
+        long lo = 0;
+        long hi = records;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (getLong(mid, 0) < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (long i = lo; i < records && getLong(i, 0) == key; i++) {
+            Stats next = new Stats(getInt(i, 8));
+            next.add(getInt(i, 12), getInt(i, 16), getInt(i, 20), getInt(i, 24));
+            position.add(next.games, next.white, next.draws, next.black);
+            if (next.move != MoveCode.NONE) {
+                position.next.add(next);
+            }
+        }
+        position.next.sort(Comparator.comparingLong(Stats::getGames).reversed());
+        return position;
+    }
+
+    /**
+     * @return number of games in the database
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @return number of plies indexed per game
+     */
+    public int getPlies() {
+        return plies;
+    }
+
+    /**
+     * @return number of records, one per position and next move
+     */
+    public long size() {
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private long getLong(long record, int field) {
+        return segments[(int) (record / SEGMENT_RECORDS)].getLong((int) (record % SEGMENT_RECORDS) * RECORD_BYTES + field);
+    }
+
+    private int getInt(long record, int field) {
+        return segments[(int) (record / SEGMENT_RECORDS)].getInt((int) (record % SEGMENT_RECORDS) * RECORD_BYTES + field);
+    }
+
+    // ---------------------------------- BUILDING ----------------------------------
+
+    /**
+     * replays the games of a PGN file and writes the database. Records are collected in memory up to a fixed number,
+     * written as sorted runs next to the database and merged at the end, so collections of any size are built with
+     * bounded memory.
+     * @param pgn PGN collection
+     * @param file database to write, replaced if it exists
+     * @param plies plies of every game to index
+     * @return number of games indexed
+     * @throws IOException if a file can't be read or written
+     */
+    public static long build(Path pgn, Path file, int plies) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        List<Path> runs = new ArrayList<>();
+        Counter counter = new Counter(RUN_RECORDS);
+        Evaluation evaluation = new Evaluation();
+        Position start = Fen.parse(Fen.START, evaluation);
+        Position position = new Position(evaluation);
+        int[] legal = new int[Position.MAX_MOVES];
+        long[] seen = new long[plies + 1];
+        long count = 0;
+        try (PgnReader reader = PgnReader.open(pgn)) {
+            PgnGame game;
+            while ((game = reader.next()) != null) {
+                String fen = game.getTag("FEN");
+                try {
+                    position.copyFrom(fen == null ? start : Fen.parse(fen, evaluation));
+                } catch (IllegalArgumentException e) {
+                    LOG.log(Level.INFO, "SYSTEM: skipping game with invalid FEN at offset {0}", game.getOffset());
+                    continue;
+                }
+                count++;
+                String result = game.getResult();
+                int white = result.equals("1-0") ? 1 : 0;
+                int draw = result.equals("1/2-1/2") ? 1 : 0;
+                int black = result.equals("0-1") ? 1 : 0;
+                List<String> moves = game.getMoves();
+                for (int ply = 0; ply <= plies; ply++) {
+                    long key = position.getKey();
+                    int move = ply < plies && ply < moves.size() ? San.find(position, moves.get(ply), legal) : MoveCode.NONE;
+                    if (move == San.AMBIGUOUS) {
+                        move = MoveCode.NONE;
+                    }
+                    seen[ply] = key;
+                    if (!isRepeated(seen, ply)) {
+                        if (counter.isFull()) {
+                            runs.add(counter.writeRun(directory));
+                        }
+                        counter.add(key, move, white, draw, black);
+                    }
+                    if (move == MoveCode.NONE) {
+                        break;
+                    }
+                    position.makeMove(move);
+                }
+            }
+        }
+        try {
+            if (runs.isEmpty()) {
+                counter.sort();
+                writeDatabase(file, plies, count, Collections.singletonList(counter.cursor()));
+            } else {
+                runs.add(counter.writeRun(directory));
+                List<Cursor> cursors = new ArrayList<>();
+                try {
+                    for (Path run : runs) {
+                        cursors.add(new RunCursor(run));
+                    }
+                    writeDatabase(file, plies, count, cursors);
+                } finally {
+                    for (Cursor cursor : cursors) {
+                        ((RunCursor) cursor).close();
+                    }
+                }
+            }
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return was the position already counted for this game, repetitions count once
+     */
+    private static boolean isRepeated(long[] seen, int ply) {
+        for (int i = ply - 2; i >= 0; i -= 2) {
+            if (seen[i] == seen[ply]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * merges sorted cursors, adding up equal position and move pairs
+     */
+    private static void writeDatabase(Path file, int plies, long games, List<Cursor> cursors) throws IOException {
+        PriorityQueue<Cursor> queue = new PriorityQueue<>((a, b) -> a.key != b.key ? Long.compare(a.key, b.key) : Integer.compare(a.move, b.move));
+        for (Cursor cursor : cursors) {
+            if (cursor.next()) {
+                queue.add(cursor);
+            }
+        }
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            long position = HEADER_BYTES;
+            long records = 0;
+            while (!queue.isEmpty()) {
+                Cursor first = queue.poll();
+                long key = first.key;
+                int move = first.move;
+                long[] sum = first.counts.clone();
+                if (first.next()) {
+                    queue.add(first);
+                }
+                while (!queue.isEmpty() && queue.peek().key == key && queue.peek().move == move) {
+                    Cursor same = queue.poll();
+                    for (int i = 0; i < sum.length; i++) {
+                        sum[i] += same.counts[i];
+                    }
+                    if (same.next()) {
+                        queue.add(same);
+                    }
+                }
+                if (buffer.remaining() < RECORD_BYTES) {
+                    position = flush(out, buffer, position);
+                }
+                buffer.putLong(key).putInt(move);
+                for (long n : sum) {
+                    buffer.putInt((int) Math.min(n, Integer.MAX_VALUE));
+                }
+                buffer.putInt(0);
+                records++;
+            }
+            flush(out, buffer, position);
+            buffer.putLong(MAGIC).putInt(VERSION).putInt(plies).putLong(games).putLong(records);
+            flush(out, buffer, 0);
+        }
+    }
+
+    private static long flush(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+        return position;
+    }
+
+    // ---------------------------------- RESULTS ----------------------------------
+
+    /**
+     * games that reached a position or played a move from it
+     */
+    public static final class Stats {
+
+        private final int move;
+        private long games;
+        private long white;
+        private long draws;
+        private long black;
+        private final List<Stats> next = new ArrayList<>();
+
+        private Stats(int move) {
+            this.move = move;
+        }
+
+        private void add(long games, long white, long draws, long black) {
+            this.games += games;
+            this.white += white;
+            this.draws += draws;
+            this.black += black;
+        }
+
+        /**
+         * @return packed move played next, {@link MoveCode#NONE} for the position itself
+         */
+        public int getMove() {
+            return move;
+        }
+
+        public long getGames() {
+            return games;
+        }
+
+        public long getWhiteWins() {
+            return white;
+        }
+
+        public long getDraws() {
+            return draws;
+        }
+
+        public long getBlackWins() {
+            return black;
+        }
+
+        /**
+         * @return score of white in percent of the decided and drawn games, 50 if there are none
+         */
+        public double getWhiteScore() {
+            long played = white + draws + black;
+            return played == 0 ? 50 : (white + draws / 2.0) * 100 / played;
+        }
+
+        /**
+         * @return moves played from the position, most played first; empty for a move
+         */
+        public List<Stats> getNext() {
+            return Collections.unmodifiableList(next);
+        }
+
+    }
+
+    // ---------------------------------- SORTING ----------------------------------
+
+    /**
+     * sorted source of records: key, move and counts of the current record
+     */
+    private abstract static class Cursor {
+
+        long key;
+        int move;
+        final long[] counts = new long[4];
+
+        /**
+         * @return false if there are no more records
+         */
+        abstract boolean next() throws IOException;
+
+    }
+
+    /**
+     * open addressing table adding up the counts of equal position and move pairs
+     */
+    private static final class Counter {
+
+        private final long[] keys;
+        private final int[] moves;
+        private final int[] counts;
+        private final boolean[] used;
+        private final int limit;
+        private int size;
+
+        Counter(int records) {
+            int capacity = Integer.highestOneBit(records) * 2;
+            keys = new long[capacity];
+            moves = new int[capacity];
+            counts = new int[capacity * 4];
+            used = new boolean[capacity];
+            limit = records;
+        }
+
+        boolean isFull() {
+            return size >= limit;
+        }
+
+        void add(long key, int move, int white, int draw, int black) {
+            int mask = keys.length - 1;
+            int slot = (int) mix(key ^ (move * 0x9E3779B97F4A7C15L)) & mask;
+            while (used[slot] && (keys[slot] != key || moves[slot] != move)) {
+                slot = (slot + 1) & mask;
+            }
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = key;
+                moves[slot] = move;
+                size++;
+            }
+            counts[slot * 4]++;
+            counts[slot * 4 + 1] += white;
+            counts[slot * 4 + 2] += draw;
+            counts[slot * 4 + 3] += black;
+        }
+
+        /**
+         * moves the records to the front of the arrays and sorts them by key and move, the table can't be added to
+         * afterwards
+         */
+        void sort() {
+            int n = 0;
+            for (int slot = 0; slot < used.length; slot++) {
+                if (used[slot]) {
+                    swap(n++, slot);
+                }
+            }
+            quicksort(0, n - 1);
+        }
+
+        Path writeRun(Path directory) throws IOException {
+            sort();
+            Path run = Files.createTempFile(directory, "positions", ".run");
+            try (FileChannel out = FileChannel.open(run, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                long position = 0;
+                for (int i = 0; i < size; i++) {
+                    if (buffer.remaining() < RECORD_BYTES) {
+                        position = flush(out, buffer, position);
+                    }
+                    buffer.putLong(keys[i]).putInt(moves[i])
+                            .putInt(counts[i * 4]).putInt(counts[i * 4 + 1]).putInt(counts[i * 4 + 2]).putInt(counts[i * 4 + 3])
+                            .putInt(0);
+                }
+                flush(out, buffer, position);
+            }
+            Arrays.fill(used, false);
+            Arrays.fill(counts, 0);
+            size = 0;
+            return run;
+        }
+
+        /**
+         * @return cursor over the sorted records
+         */
+        Cursor cursor() {
+            return new Cursor() {
+                private int i = -1;
+
+                @Override
+                boolean next() {
+                    if (++i >= size) {
+                        return false;
+                    }
+                    key = keys[i];
+                    move = moves[i];
+                    for (int c = 0; c < 4; c++) {
+                        counts[c] = Counter.this.counts[i * 4 + c];
+                    }
+                    return true;
+                }
+            };
+        }
+
+        private void quicksort(int lo, int hi) {
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                long pivotKey = keys[mid];
+                int pivotMove = moves[mid];
+                int i = lo;
+                int j = hi;
+                while (i <= j) {
+                    while (compare(i, pivotKey, pivotMove) < 0) {
+                        i++;
+                    }
+                    while (compare(j, pivotKey, pivotMove) > 0) {
+                        j--;
+                    }
+                    if (i <= j) {
+                        swap(i++, j--);
+                    }
+                }
+                // recursion on the smaller part keeps the stack short
+                if (j - lo < hi - i) {
+                    quicksort(lo, j);
+                    lo = i;
+                } else {
+                    quicksort(i, hi);
+                    hi = j;
+                }
+            }
+        }
+
+        private int compare(int i, long key, int move) {
+            return keys[i] != key ? Long.compare(keys[i], key) : Integer.compare(moves[i], move);
+        }
+
+        private void swap(int a, int b) {
+            if (a == b) {
+                return;
+            }
+            long key = keys[a];
+            keys[a] = keys[b];
+            keys[b] = key;
+            int move = moves[a];
+            moves[a] = moves[b];
+            moves[b] = move;
+            boolean u = used[a];
+            used[a] = used[b];
+            used[b] = u;
+            for (int c = 0; c < 4; c++) {
+                int n = counts[a * 4 + c];
+                counts[a * 4 + c] = counts[b * 4 + c];
+                counts[b * 4 + c] = n;
+            }
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+            return z ^ (z >>> 33);
+        }
+
+    }
+
+    /**
+     * sorted run written by {@link Counter#writeRun}
+     */
+    private static final class RunCursor extends Cursor implements Closeable {
+
+        private final FileChannel in;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+
+        RunCursor(Path run) throws IOException {
+            in = FileChannel.open(run, StandardOpenOption.READ);
+            buffer.flip();
+        }
+
+        @Override
+        boolean next() throws IOException {
+            if (buffer.remaining() < RECORD_BYTES) {
+                buffer.compact();
+                while (buffer.position() < RECORD_BYTES && in.read(buffer) > 0) {
+                    // reads at least one record
+                }
+                buffer.flip();
+                if (buffer.remaining() < RECORD_BYTES) {
+                    return false;
+                }
+            }
+            key = buffer.getLong();
+            move = buffer.getInt();
+            for (int c = 0; c < 4; c++) {
+                counts[c] = buffer.getInt();
+            }
+            buffer.getInt();
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+    }
+
+}
@@ -1,24 +1,41 @@
 package com.chess.root;
 
+import java.io.IOException;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import com.chess.application.FieldButton;
+import com.chess.engine.Bitboards;
+import com.chess.engine.EvalCache;
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.LazySmp;
+import com.chess.engine.MoveCode;
+import com.chess.engine.PolyglotBook;
+import com.chess.engine.Position;
+import com.chess.engine.RatingAdjustment;
+import com.chess.engine.RootParallelSearch;
+import com.chess.engine.TranspositionTable;
 import com.chess.model.Difficulty;
 import com.chess.model.PieceValues;
 import com.chess.model.Setting;
+import com.chess.root.moves.CastlingMove;
 import com.chess.root.moves.Move;
+import com.chess.root.moves.PassingMove;
+import com.chess.root.moves.PawnRunMove;
+import com.chess.root.moves.PromotionMove;
+import com.chess.root.pieces.BishopPiece;
 import com.chess.root.pieces.KingPiece;
+import com.chess.root.pieces.KnightPiece;
 import com.chess.root.pieces.PawnPiece;
 import com.chess.root.pieces.Piece;
-import javafx.scene.input.MouseEvent;
+import com.chess.root.pieces.QueenPiece;
+import com.chess.root.pieces.RookPiece;
 
 public class Board {
 
@@ -29,24 +46,31 @@ public class Board {
     private final Field[][] fields;
     private final List<Piece> blackPieces;
     private final List<Piece> whitePieces;
+    private final Position position;
+    private final LazySmp search;
+    // only set when root moves are rated in parallel
+    private final RootParallelSearch rootSearch;
+    // only set when the setting has an opening book
+    private final PolyglotBook book;
     private Piece activePiece;
     private boolean blackPlays = false;
     private boolean check = false;
     private boolean isNextMoveUnlocked = true;
     private List<Move> currentMoves;
-    private int recursionDepth;
     private int delayControl = 300;
     private static final Logger LOG = Logger.getLogger(String.class.getName());
     private Piece enPassantPiece;
 
     private boolean initializing = false;
-    private boolean endGame = false;
     private final List<Move> moveHistory = new LinkedList<>();
     private final List<Move> moveFuture = new LinkedList<>();
     private int countdown;
     private static final Random random = new Random();
     private boolean dummyMode;
 
+    // preallocated list for the moves offered on the gui
+    private final int[] validMoveBuffer = new int[Position.MAX_MOVES];
+
     /**
      * construcotor for game Board
      * @param game currently being played
@@ -55,13 +79,15 @@ public class Board {
     public Board(Game game, Setting settings) {
         this.game = game;
         this.difficulty = settings.getDifficulty();
-        recursionDepth = difficulty.tree();
         this.pieceValues = settings.getPieceValue();
         this.blackPieces = new LinkedList<>();
         this.whitePieces = new LinkedList<>();
         this.fields = new Field[8][8];
-        initializeFields(settings);
-        initializePieces();
+        initializeFields();
+        this.position = initializePieces(settings);
+        this.search = new LazySmp(position, new TranspositionTable(difficulty.hash()), new EvalCache(difficulty.evalHash()), difficulty.threads());
+        this.rootSearch = settings.isRootParallel() ? new RootParallelSearch(position, search.getTable(), search.getEvalCache(), difficulty.threads()) : null;
+        this.book = openBook(settings);
 
         if (!settings.hasPgn()) {
             validateBoard();
@@ -73,12 +99,10 @@ public class Board {
 
     /**
      * executes game move of a player
-     * @param event
+     * @param field clicked by the player
      */
-    public void performManualMove(MouseEvent event) {
+    public void performManualMove(Field field) {
         if (!getPlayer().isAI()) {
-            FieldButton button = (FieldButton) event.getSource();
-            Field field = button.getField();
             if (isNextMoveUnlocked) {
                 // start move
                 activePiece = field.getPiece();
@@ -175,6 +199,11 @@ public class Board {
 
         List<Move> moves = currentMoves;
 
+        Move bookMove = getBookMove();
+        if (bookMove != null) {
+            return bookMove;
+        }
+
         rateMovesAlphaBeta(moves);
 
         List<Move> bestMoves = new LinkedList<>();
@@ -202,127 +231,114 @@ public class Board {
         return null;
     }
 
-    // ---------------------------------- MOVE RATING ----------------------------------
-
     /**
-     * Implementation of <a href="https://www.chessprogramming.org/Alpha-Beta">Alpha-Beta</a>
-     *
-     * @param moves list of moves to be rated
+     * plays from the opening book during the first plies of the difficulty, no search is needed then
+     * @return book move or null if the position is not in the book
      */
-    private void rateMovesAlphaBeta(List<Move> moves) {
-        if (!moves.isEmpty()) {
-            List<Piece> myPieces = new LinkedList<>(getPieces(blackPlays));
-            List<Piece> otherPieces = new LinkedList<>(getPieces(getOtherPlayer().isBlack()));
-            for (Move c : moves) {
-                List<Move> startMove = new LinkedList<>();
-                startMove.add(c);
-                int rating = rateMovesAlphaBeta(startMove, myPieces, otherPieces, true, blackPlays, -1000000, 1000000, recursionDepth);
-                c.incRating(rating);
+    private Move getBookMove() {
+        if (book == null || moveHistory.size() >= difficulty.book()) {
+            return null;
+        }
+        int code = book.pick(position, random);
+        if (code == MoveCode.NONE) {
+            return null;
+        }
+        for (Move m : currentMoves) {
+            if (m.getCode() == code) {
+                LOG.log(Level.INFO, "SYSTEM: book move {0}", MoveCode.toString(code));
+                return m;
             }
         }
+        return null;
     }
 
-    private int rateMovesAlphaBeta(List<Move> moves, List<Piece> myPieces, List<Piece> otherPieces, boolean itsMe, boolean isBlack, int alpha, int beta, int tree) {
-        List<Integer> numlist = new LinkedList<>();
-        int vala = -1000000;
-        int valb = 1000000;
-        for (Move thisMove : moves) {
-            int rating;
-
-            // ----------------- before move -----------------
-            thisMove.executeSimulation(this, otherPieces, myPieces, thisMove);
-            // ----------------- after move start -----------------
-
-            List<Move> otherMoves = getMoves(otherPieces, !isBlack);
-
-            if (tree > 0 && !otherMoves.isEmpty()) {
-                rating = rateMovesAlphaBeta(otherMoves, otherPieces, myPieces, !itsMe, !isBlack, alpha, beta, tree - 1);
-                if (tree == recursionDepth) {
-
-                    rating = avoidDrawCheck(thisMove, tree, rating);
-                    if (rating > 600000 && tree == recursionDepth && avoidStalemateCheck(isBlack, myPieces) && !(thisMove.getVictim() instanceof KingPiece)) {
-                        rating = rating / 320;
-                        LOG.log(Level.INFO, "SYSTEM: avoiding stalemate");
-                    }
-                }
-            } else {
-                rating = itsMe ? getMaterial(myPieces) - getMaterial(otherPieces) : getMaterial(otherPieces) - getMaterial(myPieces);
-
-                if (otherMoves.isEmpty() && thisMove.getVictim() instanceof KingPiece) {
-                    LOG.log(Level.INFO, "SYSTEM: plotting about direct attack of king");
-                    rating = rating * 2;
-                    if (tree != 0) {
-                        rating = rating * (tree + 1);
-                    }
-                }
-            }
-            numlist.add(rating + thisMove.getRating());
-            // ----------------- after move end -----------------
-            thisMove.undoSimulation(this, otherPieces, myPieces, thisMove);
-            // ----------------- after move restore -----------------
-
-            if (tree != 0) {
-                if (itsMe) {
-                    vala = Math.max(vala, rating);
-                    alpha = Math.max(alpha, vala);
-                } else {
-                    valb = Math.min(valb, rating);
-                    beta = Math.min(beta, valb);
-                }
-                if (alpha >= beta) {
-                    break;
-                }
-            }
+    private static PolyglotBook openBook(Setting settings) {
+        if (settings.getBook() == null || settings.getDifficulty().book() == 0) {
+            return null;
+        }
+        try {
+            return PolyglotBook.open(settings.getBook());
+        } catch (IOException e) {
+            LOG.log(Level.WARNING, "SYSTEM: opening book can't be read, searching every move", e);
+            return null;
         }
-        return itsMe ? numlist.stream().mapToInt(v -> v).max().orElseThrow(NoSuchElementException::new) : numlist.stream().mapToInt(v -> v).min().orElseThrow(NoSuchElementException::new);
     }
 
-    private boolean avoidStalemateCheck(boolean otherColor, List<Piece> myPieces) {
-        Piece king = getKing(!otherColor);
-        if (difficulty.draw() && !isPieceEndangered(king, myPieces)) {
+    // ---------------------------------- MOVE RATING ----------------------------------
 
-            List<Move> kingMoves = new LinkedList<>(king.getMoves());
-            int size;
-            if (!kingMoves.isEmpty()) {
-                size = kingMoves.size();
-                for (Move m : kingMoves) {
-                    m.executeSimulation(this, myPieces);
-                    if (isPieceEndangered(king, myPieces)) {
-                        size--;
-                    }
-                    m.undoSimulation(this, myPieces);
-                }
-                return size == 0;
+    /**
+     * Implementation of <a href="https://www.chessprogramming.org/Alpha-Beta">Alpha-Beta</a>, every move is rated on the bitboard position,
+     * positions reached on several paths are taken from the transposition table. Search goes deeper until time or node
+     * limit of the difficulty runs out, helper threads fill the shared table meanwhile. In root parallel mode root moves
+     * are rated side by side instead and only the best one and the ones adjusted to avoid a draw are rated exactly.
+     *
+     * @param moves list of moves to be rated
+     */
+    private void rateMovesAlphaBeta(List<Move> moves) {
+        int[] codes = moves.stream().mapToInt(Move::getCode).toArray();
+        int[] ratings = new int[codes.length];
+        RatingAdjustment drawCheck = getDrawCheck(moves);
+        int depth;
+        if (rootSearch != null) {
+            depth = rootSearch.rateMoves(codes, codes.length, ratings, difficulty.tree(), difficulty.time(), difficulty.nodes(), drawCheck);
+        } else {
+            depth = search.rateMoves(codes, codes.length, ratings, difficulty.tree(), difficulty.time(), difficulty.nodes());
+            for (int i = 0; i < codes.length; i++) {
+                ratings[i] = drawCheck.adjust(i, ratings[i]);
             }
         }
-        return false;
+        LOG.log(Level.INFO, "SYSTEM: search depth reached: {0}", depth + 1);
+        EvalCache evalCache = search.getEvalCache();
+        LOG.log(Level.INFO, "SYSTEM: evaluation cache hits: {0}%, {1} hits, {2} misses",
+                new Object[] {evalCache.getHitRate(), evalCache.getHits(), evalCache.getMisses()});
+        evalCache.resetCounters();
+        int i = 0;
+        for (Move c : moves) {
+            c.incRating(ratings[i++]);
+        }
     }
 
-    private int avoidDrawCheck(Move thisMove, int tree, int rating) {
+    /**
+     * finds the moves to avoid a draw with before the search starts, the search threads must not touch the board
+     * @param moves list of moves to be rated
+     * @return adjustment of the ratings of the moves
+     */
+    private RatingAdjustment getDrawCheck(List<Move> moves) {
+        boolean[] repeating = new boolean[moves.size()];
+        boolean[] resetting = new boolean[moves.size()];
         if (difficulty.draw()) {
-            // avoid draw by threefold repetition
-            if (tree == recursionDepth && getBoardOccurrences(moveHistory) >= 1) {
-                LOG.log(Level.INFO, "SYSTEM: avoiding threefold rule draw");
-                rating = rating / 6;
-            }
-            // avoid draw by 50 moves rule
-            if ((tree == recursionDepth && countdown > 80) && (thisMove.getPiece() instanceof PawnPiece || thisMove.getVictim() != null)) {
-                LOG.log(Level.INFO, "SYSTEM: avoiding 50 moves rule draw");
-                rating = rating * 2;
+            int i = 0;
+            for (Move m : moves) {
+                // avoid draw by threefold repetition
+                repeating[i] = getBoardOccurrences(m) >= 1;
+                if (repeating[i]) {
+                    LOG.log(Level.INFO, "SYSTEM: avoiding threefold rule draw");
+                }
+                // avoid draw by 50 moves rule
+                resetting[i] = countdown > 80 && (m.getPiece() instanceof PawnPiece || m.getVictim() != null);
+                if (resetting[i]) {
+                    LOG.log(Level.INFO, "SYSTEM: avoiding 50 moves rule draw");
+                }
+                i++;
             }
         }
-        return rating;
-    }
+        return new RatingAdjustment() {
+            @Override
+            public boolean changes(int index) {
+                return repeating[index] || resetting[index];
+            }
 
-    private int getMaterial(List<Piece> pieces) {
-        int value = 0;
-        int count = pieces.size();
-        if (count > 0) {
-            for (Piece p : pieces) {
-                value += p.getValue();
+            @Override
+            public int adjust(int index, int rating) {
+                if (repeating[index]) {
+                    rating = rating / 6;
+                }
+                if (resetting[index]) {
+                    rating = rating * 2;
+                }
+                return rating;
             }
-        }
-        return value;
+        };
     }
 
     // ---------------------------------- MOVE EXECUTION ----------------------------------
@@ -330,8 +346,16 @@ public class Board {
     private void executeMove(Move move) {
         countdown++;
         moveHistory.add(move);
+        position.makeMove(move.getCode());
         move.execute(this);
         isNextMoveUnlocked = true;
+        positionChanged();
+    }
+
+    private void positionChanged() {
+        if (!initializing) {
+            game.getListener().positionChanged(this);
+        }
     }
 
     /**
@@ -362,8 +386,10 @@ public class Board {
         if (move != null) {
             moveHistory.remove(move);
             moveFuture.add(move);
+            position.unmakeMove();
             move.undo(this);
             validateBoard();
+            positionChanged();
         }
     }
 
@@ -377,41 +403,19 @@ public class Board {
 
     // ---------------------------------- MOVE GENERATION AND VALIDATION ----------------------------------
 
-    private List<Move> getValidMoves(boolean isblack, List<Move> moves) {
+    private List<Move> getValidMoves() {
         List<Move> validMoves = new LinkedList<>();
 
-        if (moves.isEmpty() || getPlayer() == null) {
+        if (getPlayer() == null) {
             return validMoves;
         }
 
-        boolean checked = false;
-        Piece king = getKing(isblack);
-        List<Piece> otherPieces = getPieces(!isblack);
-        boolean endangered;
-
-        // check if king is currently in check
-        if (isPieceEndangered(king, otherPieces)) {
-            checked = true;
+        int count = position.generateLegalMoves(validMoveBuffer, 0);
+        for (int i = 0; i < count; i++) {
+            Optional.ofNullable(toMove(validMoveBuffer[i])).ifPresent(validMoves::add);
         }
 
-        for (Move thisMove : moves) {
-            thisMove.executeSimulation(this, otherPieces);
-            endangered = isPieceEndangered(king, otherPieces);
-            if (!endangered) {
-                validMoves.add(thisMove);
-            }
-            thisMove.undoSimulation(this, otherPieces);
-        }
-
-        check = checked;
-
-        if (!check) {
-            // get castling moves
-            KingPiece k = (KingPiece) king;
-            if (king != null) {
-                Optional.ofNullable(k.getCastlingMoves()).ifPresent(validMoves::addAll);
-            }
-        }
+        check = position.inCheck();
 
         if (!validMoves.isEmpty()) {
             ambiguousCheck(validMoves);
@@ -419,6 +423,38 @@ public class Board {
         return validMoves;
     }
 
+    /**
+     * creates game move out of a packed position move, pawns are only promoted to queens
+     * @param code packed move
+     * @return game move or null if move can't be played on the gui
+     */
+    private Move toMove(int code) {
+        int from = MoveCode.from(code);
+        int to = MoveCode.to(code);
+        Field start = getSquareField(from);
+        Field target = getSquareField(to);
+        Piece piece = start.getPiece();
+        Move move;
+        switch (MoveCode.flag(code)) {
+            case MoveCode.CASTLING -> {
+                boolean kingSide = to > from;
+                Piece rook = getSquareField(kingSide ? from + 3 : from - 4).getPiece();
+                move = new CastlingMove(piece, rook, target, getSquareField(kingSide ? from + 1 : from - 1));
+            }
+            case MoveCode.EN_PASSANT -> move = new PassingMove(piece, target, getField(target.getColumn(), start.getRow()).getPiece());
+            case MoveCode.DOUBLE_PUSH -> move = new PawnRunMove(piece, target, null);
+            case MoveCode.PROMOTION -> {
+                if (MoveCode.promotion(code) != Position.QUEEN) {
+                    return null;
+                }
+                move = new PromotionMove(piece, piece, target, target.getPiece());
+            }
+            default -> move = new Move(piece, target, target.getPiece());
+        }
+        move.setCode(code);
+        return move;
+    }
+
     private void ambiguousCheck(List<Move> moves) {
         for (Move a : moves) {
             String p = a.getPiece().getNotation();
@@ -463,32 +499,10 @@ public class Board {
     /**
      * checks if piece is under attack
      * @param piece to be checked
-     * @param otherPieces in game
      * @return is piece under attack
      */
-    public boolean isPieceEndangered(Piece piece, List<Piece> otherPieces) {
-        List<Move> otherMoves = getMoves(otherPieces, getOtherPlayer().isBlack());
-        if (!otherMoves.isEmpty()) {
-            for (Move m : otherMoves) {
-                if (m.getVictim() != null && m.getVictim().equals(piece)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private List<Move> getMoves(List<Piece> p, boolean isBlack) {
-        // get all pieces from specific player
-        if (p == null) {
-            p = getPieces(isBlack);
-        }
-        List<Piece> pieces = new LinkedList<>(p);
-        List<Move> moves = new LinkedList<>();
-        for (Piece piece : pieces) {
-            Optional.ofNullable(piece.getMoves()).ifPresent(moves::addAll);
-        }
-        return moves;
+    public boolean isPieceEndangered(Piece piece) {
+        return position.isAttacked(getSquare(piece.getField()), piece.isBlack() ? Position.WHITE : Position.BLACK);
     }
 
     // ---------------------------------- BOARD STATE HANDLING ----------------------------------
@@ -503,8 +517,7 @@ public class Board {
 
         blackPlays = getPlayer().isBlack();
 
-        gameStateCheck();
-        currentMoves = getValidMoves(blackPlays, getMoves(null, blackPlays));
+        currentMoves = getValidMoves();
         Move lastMove = getLastMove();
 
         if (currentMoves.isEmpty() && (!editMode || !hasFutureMoves())) {
@@ -521,7 +534,7 @@ public class Board {
                 getLastMove().setCheckSuffix("+");
             }
             if (!initializing) {
-                game.getController().setDisplay("CHECK by " + getOtherPlayer().toString() + " player");
+                game.getListener().setDisplay("CHECK by " + getOtherPlayer().toString() + " player");
             }
         }
         if (lastMove != null) {
@@ -529,39 +542,15 @@ public class Board {
         }
     }
 
-    private void gameStateCheck() {
-        int minPieces = 4;
-        if (!endGame && difficulty.recursion()) {
-            if (blackPieces.size() <= minPieces) {
-                endGame = true;
-                for (Piece p : blackPieces) {
-                    p.setEndTable(true);
-                }
-            }
-            if (whitePieces.size() <= minPieces) {
-                endGame = true;
-                for (Piece p : whitePieces) {
-                    p.setEndTable(true);
-                }
-            }
-            if (endGame) {
-                recursionDepth++;
-                LOG.log(Level.INFO, "SYSTEM: recursive search horizon increased to: {0}", recursionDepth);
-            }
-        } else if (endGame && (getPieces(blackPlays).size() > minPieces && getPieces(!blackPlays).size() > minPieces) && difficulty.recursion()) {
-            endGame = false;
-            for (Piece p : blackPieces) {
-                p.setEndTable(false);
-            }
-            for (Piece p : whitePieces) {
-                p.setEndTable(false);
-            }
-            recursionDepth = difficulty.tree();
-        }
-    }
-
-    private int getBoardOccurrences(List<Move> posList) {
-        return posList.size();
+    /**
+     * @param move to be played next
+     * @return how often the position after the move was on the board before
+     */
+    private int getBoardOccurrences(Move move) {
+        position.makeMove(move.getCode());
+        int occurrences = position.getRepetitions();
+        position.unmakeMove();
+        return occurrences;
     }
 
     private void updateLog(String moveNotation) {
@@ -597,6 +586,15 @@ public class Board {
         game.endGame(end, hasWinner);
     }
 
+    /**
+     * ends the worker threads of the root-parallel search when the game is left, the AI can't rate moves afterwards
+     */
+    public void shutdown() {
+        if (rootSearch != null) {
+            rootSearch.shutdown();
+        }
+    }
+
     // ---------------------------------- EDIT MODE HANDLING ----------------------------------
 
     /**
@@ -676,6 +674,31 @@ public class Board {
         return fields[row][column];
     }
 
+    private Field getSquareField(int square) {
+        return fields[Bitboards.toRow(square)][Bitboards.file(square)];
+    }
+
+    /**
+     * @return bitboard position mirrored by the fields
+     */
+    public Position getPosition() {
+        return position;
+    }
+
+    /**
+     * @return current position in FEN
+     */
+    public String getFen() {
+        return Fen.format(position);
+    }
+
+    /**
+     * @return Zobrist key of the current position, equal positions share the key
+     */
+    public long getZobristKey() {
+        return position.getKey();
+    }
+
     // ---------------------------------- GENERIC GETTERS AND SETTERS ----------------------------------
 
 
@@ -792,33 +815,80 @@ public class Board {
 
     // ---------------------------------- INITIALIZATION ----------------------------------
 
-    private void initializeFields(Setting settings) {
+    private void initializeFields() {
         boolean black = false;
         for (int row = 0; row < 8; row++) {
             for (int column = 0; column < 8; column++) {
-                // create field and button
-                Field field = new Field(column, row, black);
-                FieldButton button = new FieldButton(this, field);
-                field.setButton(button);
+                fields[row][column] = new Field(column, row, black);
+                black = !black;
+            }
+            black = !black;
+        }
+    }
 
-                fields[row][column] = field;
+    /**
+     * sets up figures and board state from the FEN of the settings or the standard start position
+     */
+    private Position initializePieces(Setting settings) {
+        Evaluation evaluation = createEvaluation(pieceValues);
+        Position p;
+        try {
+            p = Fen.parse(settings.hasFen() ? settings.getFen() : Fen.START, evaluation);
+        } catch (IllegalArgumentException e) {
+            LOG.log(Level.WARNING, "SYSTEM: invalid FEN, starting from initial position: {0}", e.getMessage());
+            p = Fen.parse(Fen.START, evaluation);
+        }
+        PieceInitializer.initialize(this, p);
+        blackPlays = p.getSideToMove() == Position.BLACK;
+        game.setStart(blackPlays, p.getFullmoves());
+        // rights without king and rook on their home squares are dropped
+        p.setCastling(getCastlingRights(false) | getCastlingRights(true));
+        if (enPassantPiece == null) {
+            p.setEnPassantSquare(Position.NONE);
+        }
+        return p;
+    }
 
-                // handle appearance on gui
-                if (black) {
-                    button.getStyleClass().add("button-black");
-                } else {
-                    button.getStyleClass().add("button-white");
-                }
+    /**
+     * @param pieceValues piece values of a difficulty
+     * @return evaluation with the piece values and the piece square tables of the pieces
+     */
+    public static Evaluation createEvaluation(PieceValues pieceValues) {
+        Evaluation evaluation = new Evaluation();
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            boolean black = color == Position.BLACK;
+            evaluation.setPiece(Position.piece(Position.PAWN, color), pieceValues.pawn(), PawnPiece.getTable(black));
+            evaluation.setPiece(Position.piece(Position.KNIGHT, color), pieceValues.knight(), KnightPiece.getTable(black));
+            evaluation.setPiece(Position.piece(Position.BISHOP, color), pieceValues.bishop(), BishopPiece.getTable(black));
+            evaluation.setPiece(Position.piece(Position.ROOK, color), pieceValues.rook(), RookPiece.getTable(black));
+            evaluation.setPiece(Position.piece(Position.QUEEN, color), pieceValues.queen(), QueenPiece.getTable(black));
+            evaluation.setPiece(Position.piece(Position.KING, color), pieceValues.king(), KingPiece.getTable(black));
+            evaluation.setEndTable(Position.piece(Position.KING, color), KingPiece.getEndTable(black));
+        }
+        return evaluation;
+    }
 
-                settings.getGrid().add(button, column, row);
-                black = !black;
+    private int getCastlingRights(boolean black) {
+        Piece king = getKing(black);
+        int rights = 0;
+        if (king != null && !king.wasMoved()) {
+            int row = black ? 0 : 7;
+            if (isUnmovedRook(fields[row][7].getPiece(), black)) {
+                rights |= black ? Position.BLACK_KING_SIDE : Position.WHITE_KING_SIDE;
+            }
+            if (isUnmovedRook(fields[row][0].getPiece(), black)) {
+                rights |= black ? Position.BLACK_QUEEN_SIDE : Position.WHITE_QUEEN_SIDE;
             }
-            black = !black;
         }
+        return rights;
+    }
+
+    private static boolean isUnmovedRook(Piece piece, boolean black) {
+        return piece instanceof RookPiece && piece.isBlack() == black && !piece.wasMoved();
     }
 
-    private void initializePieces() {
-        PieceInitializer.initialize(this);
+    private static int getSquare(Field field) {
+        return Bitboards.fromField(field.getColumn(), field.getRow());
     }
 
 
@@ -830,26 +900,24 @@ public class Board {
         if (settings.hasPgn()) {
             initializing = true;
             List<Move> pgnMoves;
-            boolean turn = blackPlays;
             List<String> moveString = settings.getPgnMoves();
-            if (!moveString.isEmpty()) {
-                for (String step : moveString) {
+            for (String step : moveString) {
 
-                    pgnMoves = getValidMoves(turn, getMoves(null, turn));
-                    Move preMove = PgnParser.parseMove(step, pgnMoves);
+                pgnMoves = getValidMoves();
+                Move preMove = PgnParser.parseMove(step, pgnMoves);
 
-                    if (preMove == null) {
-                        LOG.log(Level.INFO, "SYSTEM: pgn execution break at: {0}", step);
-                        break;
-                    }
-                    preMove.getPiece().getField().removePiece(false);
-                    executeMove(preMove);
-                    turn = !turn;
+                if (preMove == null) {
+                    LOG.log(Level.INFO, "SYSTEM: pgn execution break at: {0}", step);
+                    break;
                 }
-                initializing = false;
-                validateBoard();
-                render(); // not needed when validateboard renders
+                preMove.getPiece().getField().removePiece(false);
+                executeMove(preMove);
             }
+            initializing = false;
+            // also a set up position without moves has to be validated
+            validateBoard();
+            positionChanged();
+            render(); // not needed when validateboard renders
         }
     }
 
@@ -1,26 +1,17 @@
 package com.chess.root;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.FutureTask;
-import java.util.logging.Level;
-import java.util.logging.Logger;
-
-import com.chess.application.FieldButton;
 import com.chess.root.pieces.Piece;
-import javafx.application.Platform;
-import javafx.scene.image.ImageView;
 
 /**
  * represents individual field on a chess field
  */
 public class Field {
-    private FieldButton button;
+    private FieldView view;
     private final int column;
     private final int row;
     private final boolean isBlack;
     private Piece piece = null;
     private final String notation;
-    private static final Logger LOG = Logger.getLogger(String.class.getName());
 
     /**
      * constructs a game field with given coordinates and color
@@ -59,8 +50,8 @@ public class Field {
         }
         if (this.piece == null || this.piece.equals(piece)) {
             this.piece = piece;
-            if (button != null) {
-                updateButton();
+            if (view != null) {
+                view.showPiece(piece);
             }
             // set current field as property in the Piece class
             setField(init);
@@ -73,38 +64,20 @@ public class Field {
      */
     public void setRookPiece(Piece piece) {
         this.piece = piece;
-        if (button != null) {
-            updateButton();
+        if (view != null) {
+            view.showPiece(piece);
         }
         this.piece.setFieldSilently(this);
     }
 
-
-    private void updateButton() {
-        if (Platform.isFxApplicationThread()) {
-            setButtonGraphic();
-
-            // seems to be necessary...
-            Platform.runLater(() -> button.setText(""));
-        } else {
-
-            try {
-                updateUI();
-
-            } catch (InterruptedException | ExecutionException e) {
-                LOG.log(Level.SEVERE, e.getMessage());
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-
     /**
      * sets opacity of a GUI button representing this field
      * @param d opacity value
      */
     public void setOpacity(Double d) {
-        button.setOpacity(d);
-        Platform.runLater(() -> button.setOpacity(d));
+        if (view != null) {
+            view.setHintOpacity(d);
+        }
     }
 
     private void setField(boolean init) {
@@ -129,15 +102,8 @@ public class Field {
         }
 
         this.piece = piece;
-        final ImageView x = piece.getSymbol();
-        Platform.runLater(() -> button.setText("o"));
-
-        if (button != null) {
-
-            updateButton();
-            Platform.runLater(() -> button.setGraphic(x));
-
-            Platform.runLater(() -> button.getGraphic().setOpacity(1.0));
+        if (view != null) {
+            view.showPiece(piece);
         }
         this.piece.setFieldSilently(this);
     }
@@ -146,16 +112,13 @@ public class Field {
      * renders field, which figure or empty
      */
     public void render() {
+        if (view == null) {
+            return;
+        }
         if (piece == null) {
-            Platform.runLater(() -> button.setGraphic(null));
+            view.clear();
         } else {
-
-            final ImageView x = piece.getSymbol();
-            Platform.runLater(() -> button.setText("o"));
-
-            updateButton();
-            Platform.runLater(() -> button.setGraphic(x));
-            Platform.runLater(() -> button.getGraphic().setOpacity(1.0));
+            view.showPiece(piece);
         }
     }
 
@@ -167,8 +130,8 @@ public class Field {
         if (this.piece != null) {
             this.piece = null;
 
-            if (!isVictim && button != null && button.getGraphic() != null) {
-                button.getGraphic().setOpacity(0.3);
+            if (!isVictim && view != null) {
+                view.fadePiece();
             }
         }
     }
@@ -177,31 +140,11 @@ public class Field {
      * clears button
      */
     public void forceRemove() {
-        if (button != null) {
-            Platform.runLater(this::clearButton);
+        if (view != null) {
+            view.clear();
         }
     }
 
-
-    private void clearButton() {
-        button.setGraphic(null);
-        button.setText("");
-    }
-
-    /**
-     * places figure silently, without any GUI changes
-     * @param piece to place
-     */
-    public void setPieceSilently(Piece piece) {
-        this.piece = piece;
-    }
-    /**
-     * removes figure from the field silently, without any GUI changes
-     */
-    public void removePieceSilently() {
-        piece = null;
-    }
-
     // ---------------------------------- GENERIC SETTERS AND GETTERS ----------------------------------
 
     /**
@@ -287,26 +230,15 @@ public class Field {
     }
 
     /**
-     * links gui button to the field
-     * @param button to link
+     * links gui representation to the field
+     * @param view to link, null for a headless board
      */
-    public void setButton(FieldButton button) {
-        this.button = button;
+    public void setView(FieldView view) {
+        this.view = view;
     }
 
     // ---------------------------------- GENERIC HELPER METHODS ----------------------------------
 
-    private void updateUI() throws InterruptedException, ExecutionException {
-        FutureTask<Void> updateUITask = new FutureTask<>(this::setButtonGraphic, null);
-        Platform.runLater(updateUITask);
-        updateUITask.get();
-    }
-
-    private void setButtonGraphic() {
-        button.setGraphic(piece.getSymbol());
-        button.getGraphic().setOpacity(1.0);
-    }
-
     /**
      * represents field as string
      * @return field as string
@@ -0,0 +1,32 @@
+package com.chess.root;
+
+import com.chess.root.pieces.Piece;
+
+/**
+ * graphical representation of a field, the board runs without one
+ */
+public interface FieldView {
+
+    /**
+     * shows piece at full opacity
+     * @param piece to show
+     */
+    void showPiece(Piece piece);
+
+    /**
+     * removes shown piece
+     */
+    void clear();
+
+    /**
+     * dims shown piece while it is picked up
+     */
+    void fadePiece();
+
+    /**
+     * sets opacity of the whole field, used for move hints
+     * @param opacity value
+     */
+    void setHintOpacity(double opacity);
+
+}
@@ -4,7 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import com.chess.application.GameController;
 import com.chess.model.Mode;
 import com.chess.model.Setting;
 import com.chess.root.moves.Move;
@@ -14,7 +13,7 @@ import com.chess.root.moves.Move;
  */
 public class Game {
 
-	private final GameController controller;
+	private final GameListener listener;
 	private final Board board;
 	private Player whitePlayer;
 	private Player blackPlayer;
@@ -31,22 +30,27 @@ public class Game {
 	private String pgnWhite;
 	private String pgnBlack;
 	private String pgnResult = "*";
+	private final String startFen;
+	private int startMove = 1;
+	private boolean blackStarts = false;
 
 	/**
 	 * Constructor for a game object
-	 * @param controller which passes GUI calls - player controls from gui
+	 * @param listener which passes game events to the GUI, a headless game can use an empty one
 	 * @param settings stores game settings
 	 */
-	public Game(GameController controller, Setting settings) {
-		this.controller = controller;
+	public Game(GameListener listener, Setting settings) {
+		this.listener = listener;
 		setUpPlayers(settings.getColor(), settings.getMode());
 		setImportData(settings);
 		holdThreads();
 		pgnDifficulty = settings.getDifficultyName();
+		startFen = settings.getFen();
 		this.board = new Board(this, settings);
+		listener.boardCreated(board);
 
 		board.executePgn(settings);
-		controller.renderDisplay();
+		listener.renderDisplay();
 		releaseThreads();
 	}
 
@@ -222,8 +226,8 @@ public class Game {
 	public void switchPlayerSilently() {
 		currentPlayer = getOtherPlayer();
 
-		if (controller != null) {
-			controller.displayPlayer(this);
+		if (listener != null) {
+			listener.displayPlayer(this);
 		}
 	}
 
@@ -235,6 +239,43 @@ public class Game {
 		board.setDummyMode(on);
 	}
 
+	/**
+	 * sets up who moves first and the move number of the start position, called by the board before the first move
+	 * @param black is black to move
+	 * @param fullmoves move number of the start position
+	 */
+	void setStart(boolean black, int fullmoves) {
+		blackStarts = black;
+		startMove = fullmoves;
+		currentPlayer = black ? blackPlayer : whitePlayer;
+		moveCounter = fullmoves + (black ? 0.5 : 0.0);
+		if (moveCounter != 1.0) {
+			listener.updateMoveCounter(Double.toString(moveCounter));
+		}
+	}
+
+	/**
+	 * Getter for the start position
+	 * @return FEN of the start position, null when the game started from the initial position
+	 */
+	public String getStartFen() {
+		return startFen;
+	}
+
+	/**
+	 * @return move number of the start position
+	 */
+	public int getStartMove() {
+		return startMove;
+	}
+
+	/**
+	 * @return did black move first
+	 */
+	public boolean isBlackStarting() {
+		return blackStarts;
+	}
+
 	// ---------------------------------- EDIT MODE HANDLING ----------------------------------
 
 	/**
@@ -242,18 +283,18 @@ public class Game {
 	 */
 	public void stepBack() {
 		if (board.hasHistory()) {
-			controller.setForwardBut(true);
+			listener.setForwardBut(true);
 			switchPlayerSilently();
 			board.undoMove(null);
 			decreaseMoveCounter();
 
 			if (!board.hasHistory()) {
-				controller.setBackBut(false);
-				controller.requestFocusForward();
-				controller.setDisplay(currentPlayer.toString() + " starts the game");
+				listener.setBackBut(false);
+				listener.requestFocusForward();
+				listener.setDisplay(currentPlayer.toString() + " starts the game");
 			}
 
-			controller.setGoBut(true);
+			listener.setGoBut(true);
 			//board.render();
 			resetAI();
 
@@ -265,15 +306,15 @@ public class Game {
 	 */
 	public void stepForward() {
 		if (board.hasFutureMoves()) {
-			controller.setBackBut(true);
+			listener.setBackBut(true);
 			board.redoMove(null);
 		}
 
 		if (!board.hasFutureMoves()) {
-			controller.setForwardBut(false);
-			controller.requestFocusBack();
+			listener.setForwardBut(false);
+			listener.requestFocusBack();
 			if (gameEnded) {
-				controller.setGoBut(false);
+				listener.setGoBut(false);
 			}
 
 		}
@@ -297,12 +338,12 @@ public class Game {
 	 */
 	public void pauseGame() {
 		if (gameEnded) {
-			controller.setGoBut(false);
+			listener.setGoBut(false);
 		} else {
-			controller.requestFocusGo();
+			listener.requestFocusGo();
 		}
 		if (board.hasHistory()) {
-			controller.setBackBut(true);
+			listener.setBackBut(true);
 		}
 		board.setEditMode(true);
 		holdThreads();
@@ -313,7 +354,7 @@ public class Game {
 	 */
 	public void resumeGame() {
 		gameEnded = false;
-		controller.requestFocusStop();
+		listener.requestFocusStop();
 		board.validateBoard();
 		board.cleanUpEdit();
 		board.setEditMode(false);
@@ -382,8 +423,8 @@ public class Game {
 	 */
 	public void endGame(String endType, boolean hasWinner) {
 		gameEnded = true;
-		controller.setForwardBut(false);
-		controller.setGoBut(false);
+		listener.setForwardBut(false);
+		listener.setGoBut(false);
 		if (blackPlayer.isAI() && blackPlayer.getThread() != null) {
 			blackPlayer.getThread().requestStop();
 		}
@@ -395,7 +436,7 @@ public class Game {
 		if (hasWinner) {
 			end += " by " + getOtherPlayer().toString() + " player!";
 		}
-		controller.setDisplay(end);
+		listener.setDisplay(end);
 	}
 
 	// ---------------------------------- HELPER METHODS ----------------------------------
@@ -405,12 +446,12 @@ public class Game {
 	 */
 	public void updateMoveCounter() {
  		moveCounter += 0.5;
- 		controller.updateMoveCounter(Double.toString(moveCounter));
+ 		listener.updateMoveCounter(Double.toString(moveCounter));
  	}
 
 	private void decreaseMoveCounter() {
  		moveCounter -= 0.5;
- 		controller.updateMoveCounter(Double.toString(moveCounter));
+ 		listener.updateMoveCounter(Double.toString(moveCounter));
  	}
 
 	private void setUpPlayers(boolean color, Mode mode) {
@@ -436,9 +477,9 @@ public class Game {
 
 	// ---------------------------------- GENERIC GETTERS ----------------------------------
 
-	// getter for game controller
-	public GameController getController() {
-		return controller;
+	// getter for game listener
+	public GameListener getListener() {
+		return listener;
 	}
     // getter for board
  	public Board getBoard() {
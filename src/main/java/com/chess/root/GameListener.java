@@ -0,0 +1,72 @@
+package com.chess.root;
+
+/**
+ * receives game events, the gui implements it to show the game; every method does nothing by default so a headless
+ * game can listen only to what it needs
+ */
+public interface GameListener {
+
+    /**
+     * called once the board is set up and before any move is made, the gui links its field views here
+     * @param board of the game
+     */
+    default void boardCreated(Board board) {
+    }
+
+    /**
+     * @param display game status text
+     */
+    default void setDisplay(String display) {
+    }
+
+    /**
+     * redraws game status
+     */
+    default void renderDisplay() {
+    }
+
+    /**
+     * shows player whose turn it is
+     * @param game currently played
+     */
+    default void displayPlayer(Game game) {
+    }
+
+    /**
+     * @param counter moves count as a string
+     */
+    default void updateMoveCounter(String counter) {
+    }
+
+    /**
+     * called after a move was made or taken back, not for the moves replayed while a game is loaded; may be called
+     * from an AI thread
+     * @param board with the new position
+     */
+    default void positionChanged(Board board) {
+    }
+
+    // ---------------------------------- EDIT CONTROLS ----------------------------------
+
+    default void setGoBut(boolean activate) {
+    }
+
+    default void setBackBut(boolean activate) {
+    }
+
+    default void setForwardBut(boolean activate) {
+    }
+
+    default void requestFocusGo() {
+    }
+
+    default void requestFocusStop() {
+    }
+
+    default void requestFocusBack() {
+    }
+
+    default void requestFocusForward() {
+    }
+
+}
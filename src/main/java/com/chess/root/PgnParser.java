@@ -1,29 +1,22 @@
 package com.chess.root;
 
-import java.io.File;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
-import java.util.Arrays;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Scanner;
-import java.util.logging.Level;
-import java.util.logging.Logger;
 
+import com.chess.engine.San;
 import com.chess.model.Setting;
-import com.chess.root.moves.CastlingMove;
+import com.chess.pgn.PgnGame;
+import com.chess.pgn.PgnReader;
 import com.chess.root.moves.Move;
-import com.chess.root.moves.PromotionMove;
-import com.chess.root.pieces.PawnPiece;
 
 /**
  * PGN format handler
  */
 public class PgnParser {
 
-    private static final Logger LOG = Logger.getLogger(String.class.getName());
-
     private PgnParser() {
     }
 
@@ -35,13 +28,9 @@ public class PgnParser {
      * @return event data
      */
     public static String getEvent(Setting settings) {
-        String[] meta = settings.getPgnMeta();
-        if (meta != null) {
-            for (String data : meta) {
-                if (getMetaTag(data).contentEquals("Event")) {
-                    return getMetaValue(data);
-                }
-            }
+        String value = settings.getPgnTag("Event");
+        if (value != null) {
+            return value;
         }
         return "Casual waste of time";
     }
@@ -52,13 +41,9 @@ public class PgnParser {
      * @return site data
      */
     public static String getSite(Setting settings) {
-        String[] meta = settings.getPgnMeta();
-        if (meta != null) {
-            for (String data : meta) {
-                if (getMetaTag(data).contentEquals("Site")) {
-                    return getMetaValue(data);
-                }
-            }
+        String value = settings.getPgnTag("Site");
+        if (value != null) {
+            return value;
         }
         return "Your cave, SWITZERLAND";
     }
@@ -68,13 +53,9 @@ public class PgnParser {
      * @return date data
      */
     public static String getDate(Setting settings) {
-        String[] meta = settings.getPgnMeta();
-        if (meta != null) {
-            for (String data : meta) {
-                if (getMetaTag(data).contentEquals("Date")) {
-                    return getMetaValue(data);
-                }
-            }
+        String value = settings.getPgnTag("Date");
+        if (value != null) {
+            return value;
         }
         DateFormat dateFormat = new SimpleDateFormat("yyyy.MM.dd");
         Date date = new Date();
@@ -87,15 +68,7 @@ public class PgnParser {
      * @return round data
      */
     public static String getRound(Setting settings) {
-        String[] meta = settings.getPgnMeta();
-        if (meta != null) {
-            for (String data : meta) {
-                if (getMetaTag(data).contentEquals("Round")) {
-                    return getMetaValue(data);
-                }
-            }
-        }
-        return null;
+        return settings.getPgnTag("Round");
     }
 
     /**
@@ -104,15 +77,7 @@ public class PgnParser {
      * @return white player data
      */
     public static String getWhite(Setting settings) {
-        String[] meta = settings.getPgnMeta();
-        if (meta != null) {
-            for (String data : meta) {
-                if (getMetaTag(data).contentEquals("White")) {
-                    return getMetaValue(data);
-                }
-            }
-        }
-        return null;
+        return settings.getPgnTag("White");
     }
 
     /**
@@ -121,15 +86,7 @@ public class PgnParser {
      * @return black player data
      */
     public static String getBlack(Setting settings) {
-        String[] meta = settings.getPgnMeta();
-        if (meta != null) {
-            for (String data : meta) {
-                if (getMetaTag(data).contentEquals("Black")) {
-                    return getMetaValue(data);
-                }
-            }
-        }
-        return null;
+        return settings.getPgnTag("Black");
     }
 
     /**
@@ -138,32 +95,30 @@ public class PgnParser {
      * @return game result
      */
     public static String getResult(Setting settings) {
-        String[] meta = settings.getPgnMeta();
-        if (meta != null) {
-            for (String data : meta) {
-                if (getMetaTag(data).contentEquals("Result")) {
-                    return getMetaValue(data);
-                }
-            }
+        String value = settings.getPgnTag("Result");
+        if (value != null) {
+            return value;
         }
         return "*";
     }
 
+    /**
+     * Extracts start position of a game set up from a position
+     * @param settings for a game, storing pgn data
+     * @return start position in FEN, null for the initial position
+     */
+    public static String getFen(Setting settings) {
+        return settings.getPgnTag("FEN");
+    }
+
     /**
      * extracts moves from pgn game string
      * @param s string with whole pgn game
      * @return list of moves in pgn notation
      */
     public static List<String> parseMoves(String s) {
-        String alpha = "[A-Za-z]+";
-        String[] arr = s.replaceAll("\\{.*?}", "").replaceAll("\\.", "\\. ").replaceAll("\n", "\n ").split(" ");
-        LinkedList<String> result = new LinkedList<>();
-        for (String str : arr) {
-            if (str.length() > 0 && Character.toString(str.charAt(0)).matches(alpha)) {
-                result.add(str);
-            }
-        }
-        return result;
+        PgnGame game = PgnReader.parse(s);
+        return game == null ? new LinkedList<>() : game.getMoves();
     }
 
     /**
@@ -173,82 +128,18 @@ public class PgnParser {
      * @return game move for given pgn move
      */
     public static Move parseMove(String s, List<Move> moves) {
-        s = s.replaceAll("\\+", "").replaceAll("#", "").replaceAll("\n", "").replaceAll(" ", "").trim();
-        if (moves != null) {
+        // decoded once, candidates are compared by their packed form
+        int spec = San.decode(s.trim());
+        if (moves != null && spec != San.INVALID) {
             for (Move m : moves) {
-                String pieceNotation = m.getPiece().getPgnNotation();
-                String pieceCol = m.getPiece().getField().getColNotation();
-                String pieceRow = Integer.toString(m.getPiece().getField().getRowNotation());
-                String target = m.getField().getNotation();
-                if (s.contains("O-O") || s.contains("O-O-O") || s.contains("0-0") || s.contains("0-0-0")) {
-                    if (m instanceof CastlingMove && m.getNotation().contentEquals(s)) {
-                        return m;
-                    }
-                } else if (s.contains("=")) {
-                    if (m instanceof PromotionMove) {
-                        if (target.contentEquals(s.substring(0, 2)) || target.contentEquals(s.substring(3, 5))) {
-                            return m;
-                        }
-                        if (pieceCol.contentEquals(s.substring(0, 1)) && (target.contentEquals(s.substring(3, 5))) || (target.contentEquals(s.substring(2, 4)))) {
-                            return m;
-                        }
-                    }
-                } else if (s.length() == 2) {
-                    if ((target).contentEquals(s) && m.getPiece() instanceof PawnPiece) {
-                        return m;
-                    }
-                } else if (s.length() == 3) {
-                    if (pieceNotation.contentEquals(s.substring(0, 1)) && target.contentEquals(s.substring(1))) {
-                        return m;
-                    }
-                } else {
-                    if (pieceNotation.contentEquals(s.substring(0, 1))) {
-                        if (target.contentEquals(s.substring(1))) {
-                            // Nc6
-                            return m;
-                        } else if (target.contentEquals(s.substring(2))) {
-                            //cxg6
-                            //Rfd8
-                            if ((pieceCol.contentEquals(s.substring(1, 2)) || pieceRow.contentEquals(s.substring(1, 2))) || m.getVictim() != null) {
-                                return m;
-                            }
-                        } else if (target.contentEquals(s.substring(3))) {
-                            //c1xg6
-                            if ((pieceCol.contentEquals(s.substring(1, 2)) || pieceRow.contentEquals(s.substring(1, 2))) && m.getVictim() != null) {
-                                return m;
-                            }
-                            //cg4g6
-                            // Ng1e2
-                            if ((pieceCol + pieceRow).contentEquals(s.substring(1, 3))) {
-
-                                return m;
-                            }
-                        } else if (target.contentEquals(s.substring(4)) && (pieceCol + pieceRow).contentEquals(s.substring(1, 3))) {
-                            //cg4xg6
-                            return m;
-                        }
-                    }
+                if (San.matches(spec, m.getCode())) {
+                    return m;
                 }
             }
         }
         return null;
     }
 
-    /**
-     *
-     * @param file
-     * @return
-     */
-    public static String getFileContent(File file) {
-        String text = null;
-        try (Scanner scanner = new Scanner(file)) {
-            text = scanner.useDelimiter("\\A").next();
-        } catch (Exception e) {
-            LOG.log(Level.SEVERE, Arrays.deepToString(e.getStackTrace()));
-        }
-        return text;
-    }
-
     // ---------------------------------- EXPORT ----------------------------------
 
     /**
@@ -265,7 +156,11 @@ public class PgnParser {
         if (game.getAIPlayers().isEmpty()) {
             difficulty = "";
         }
-        return parseMetaString("Event", game.getEvent()) + "\n" + parseMetaString("Site", game.getSite()) + "\n" + parseMetaString("Date", game.getDate()) + "\n" + parseMetaString("Round", game.getRound()) + "\n" + difficulty + parseMetaString("White", game.getWhite()) + "\n" + parseMetaString("Black", game.getBlack()) + "\n" + parseMetaString("Result", game.getResult());
+        String setUp = "";
+        if (game.getStartFen() != null) {
+            setUp = "\n" + parseMetaString("SetUp", "1") + "\n" + parseMetaString("FEN", game.getStartFen());
+        }
+        return parseMetaString("Event", game.getEvent()) + "\n" + parseMetaString("Site", game.getSite()) + "\n" + parseMetaString("Date", game.getDate()) + "\n" + parseMetaString("Round", game.getRound()) + "\n" + difficulty + parseMetaString("White", game.getWhite()) + "\n" + parseMetaString("Black", game.getBlack()) + "\n" + parseMetaString("Result", game.getResult()) + setUp;
     }
 
     private static String getMoves(Game game) {
@@ -274,12 +169,18 @@ public class PgnParser {
         if (history != null && !history.isEmpty()) {
             int j = 0;
             String step = "";
+            // a game set up with black to move starts in the middle of a move
+            int offset = game.isBlackStarting() ? 1 : 0;
             for (int i = 0; i < history.size(); i++) {
-                j = (i + 2) / 2;
+                j = game.getStartMove() + (i + offset) / 2;
                 if (i != 0 && i % 12 == 0) {
                     bld.append("\n");
                 }
-                step = (i % 2 == 0) ? (j + ". ") : " ";
+                if (i == 0 && offset == 1) {
+                    step = j + "... ";
+                } else {
+                    step = ((i + offset) % 2 == 0) ? (j + ". ") : " ";
+                }
                 bld.append(step).append(history.get(i).getPgnNotation()).append(" ");
                 if (i == history.size() - 1) {
                     bld.append(history.get(i).getResult());
@@ -291,27 +192,6 @@ public class PgnParser {
         return result;
     }
 
-    private static String getMetaTag(String s) {
-        String result = "";
-        if (s != null) {
-            result = s.split(" ")[0].replaceAll("\n", "").substring(1);
-
-        }
-        return result;
-    }
-
-    private static String getMetaValue(String s) {
-        String result = null;
-        if (s != null) {
-            try {
-                result = s.split("\"")[1].replaceAll("\n", "");
-            } catch (Exception e) {
-                LOG.log(Level.SEVERE, Arrays.deepToString(e.getStackTrace()));
-            }
-        }
-        return result;
-    }
-
     private static String parseMetaString(String tag, String s) {
         return "[" + tag + " \"" + s + "\"]";
     }
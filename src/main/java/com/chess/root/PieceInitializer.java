@@ -1,9 +1,12 @@
 package com.chess.root;
 
+import com.chess.engine.Bitboards;
+import com.chess.engine.Position;
 import com.chess.root.pieces.BishopPiece;
 import com.chess.root.pieces.KingPiece;
 import com.chess.root.pieces.KnightPiece;
 import com.chess.root.pieces.PawnPiece;
+import com.chess.root.pieces.Piece;
 import com.chess.root.pieces.QueenPiece;
 import com.chess.root.pieces.RookPiece;
 
@@ -16,43 +19,62 @@ public class PieceInitializer {
     }
 
     /**
-     * Fills board with figures
+     * Fills board with the figures of a position, usually parsed from FEN
      * @param board to be filled
+     * @param position pieces, castling rights and en passant square to set up
      */
-    public static void initialize(Board board) {
-        new PawnPiece(board, board.getField(0, 1), true);
-        new PawnPiece(board, board.getField(1, 1), true);
-        new PawnPiece(board, board.getField(2, 1), true);
-        new PawnPiece(board, board.getField(3, 1), true);
-        new PawnPiece(board, board.getField(4, 1), true);
-        new PawnPiece(board, board.getField(5, 1), true);
-        new PawnPiece(board, board.getField(6, 1), true);
-        new PawnPiece(board, board.getField(7, 1), true);
-        new RookPiece(board, board.getField(0, 0), true);
-        new RookPiece(board, board.getField(7, 0), true);
-        new KnightPiece(board, board.getField(1, 0), true);
-        new KnightPiece(board, board.getField(6, 0), true);
-        new BishopPiece(board, board.getField(2, 0), true);
-        new BishopPiece(board, board.getField(5, 0), true);
-        new QueenPiece(board, board.getField(3, 0), true, false);
-        new KingPiece(board, board.getField(4, 0), true);
-
-        new PawnPiece(board, board.getField(0, 6), false);
-        new PawnPiece(board, board.getField(1, 6), false);
-        new PawnPiece(board, board.getField(2, 6), false);
-        new PawnPiece(board, board.getField(3, 6), false);
-        new PawnPiece(board, board.getField(4, 6), false);
-        new PawnPiece(board, board.getField(5, 6), false);
-        new PawnPiece(board, board.getField(6, 6), false);
-        new PawnPiece(board, board.getField(7, 6), false);
-        new RookPiece(board, board.getField(0, 7), false);
-        new RookPiece(board, board.getField(7, 7), false);
-        new KnightPiece(board, board.getField(1, 7), false);
-        new KnightPiece(board, board.getField(6, 7), false);
-        new BishopPiece(board, board.getField(2, 7), false);
-        new BishopPiece(board, board.getField(5, 7), false);
-        new QueenPiece(board, board.getField(3, 7), false, false);
-        new KingPiece(board, board.getField(4, 7), false);
+    public static void initialize(Board board, Position position) {
+        for (int square = 0; square < 64; square++) {
+            int piece = position.getPiece(square);
+            if (piece != Position.NONE) {
+                Field field = board.getField(Bitboards.file(square), Bitboards.toRow(square));
+                createPiece(board, field, Position.type(piece), Position.color(piece) == Position.BLACK);
+            }
+        }
+        int castling = position.getCastling();
+        markMoved(board, true, castling & (Position.BLACK_KING_SIDE | Position.BLACK_QUEEN_SIDE), Position.BLACK_KING_SIDE, Position.BLACK_QUEEN_SIDE);
+        markMoved(board, false, castling & (Position.WHITE_KING_SIDE | Position.WHITE_QUEEN_SIDE), Position.WHITE_KING_SIDE, Position.WHITE_QUEEN_SIDE);
+
+        int ep = position.getEnPassantSquare();
+        if (ep != Position.NONE) {
+            // pawn that did the double push stands in front of the en passant square
+            boolean black = position.getSideToMove() == Position.WHITE;
+            Piece pawn = board.getField(Bitboards.file(ep), Bitboards.toRow(ep) + (black ? 1 : -1)).getPiece();
+            if (pawn instanceof PawnPiece && pawn.isBlack() == black) {
+                board.setEnPassantPiece(pawn);
+            }
+        }
+        board.setCountdown(position.getHalfmoves());
+    }
+
+    private static void createPiece(Board board, Field field, int type, boolean black) {
+        switch (type) {
+            case Position.PAWN -> new PawnPiece(board, field, black);
+            case Position.KNIGHT -> new KnightPiece(board, field, black);
+            case Position.BISHOP -> new BishopPiece(board, field, black);
+            case Position.ROOK -> new RookPiece(board, field, black);
+            case Position.QUEEN -> new QueenPiece(board, field, black);
+            default -> new KingPiece(board, field, black);
+        }
+    }
+
+    /**
+     * figures start unmoved on their home squares, the ones without castling right are marked as moved
+     */
+    private static void markMoved(Board board, boolean black, int rights, int kingSide, int queenSide) {
+        int row = black ? 0 : 7;
+        Piece king = board.getField(4, row).getPiece();
+        if (rights == 0 && king instanceof KingPiece && king.isBlack() == black) {
+            king.moved();
+        }
+        markRook(board.getField(7, row).getPiece(), black, (rights & kingSide) == 0);
+        markRook(board.getField(0, row).getPiece(), black, (rights & queenSide) == 0);
     }
-	
+
+    private static void markRook(Piece rook, boolean black, boolean moved) {
+        if (moved && rook instanceof RookPiece && rook.isBlack() == black) {
+            rook.moved();
+        }
+    }
+
 }
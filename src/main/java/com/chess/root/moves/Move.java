@@ -1,7 +1,5 @@
 package com.chess.root.moves;
 
-import java.util.List;
-
 import com.chess.root.Board;
 import com.chess.root.Field;
 import com.chess.root.pieces.KingPiece;
@@ -27,6 +25,7 @@ public class Move {
 
     protected int rating;
     private int countdown;
+    private int code;
 
     protected String notation;
 
@@ -124,61 +123,6 @@ public class Move {
         startField.forceRemove();
     }
 
-    /**
-     * function starts one move simulation
-     * @param board
-     * @param otherPieces
-     * @param myPieces
-     * @param thisMove
-     */
-    public void executeSimulation(Board board, List<Piece> otherPieces, List<Piece> myPieces, Move thisMove) {
-        executeSimulation(board, otherPieces);
-    }
-
-    /**
-     * Function executing simulation.
-     * @param board
-     * @param otherPieces
-     */
-    public void executeSimulation(Board board, List<Piece> otherPieces) {
-        if (victim != null) {
-            victimField.removePieceSilently();
-            otherPieces.remove(victim);
-        }
-        savePassing(board.getEnPassantPiece());
-        board.setEnPassantPiece(null);
-        startField.removePieceSilently();
-        piece.setFieldSilently(field);
-        field.setPieceSilently(piece);
-    }
-    /**
-     * undo a move as with no graphical update happen
-     * @param board to be processed
-     * @param otherPieces list of pieces on board
-     * @param myPieces pieces of a player
-     * @param thisMove promotional move that to be silently happen
-     */
-    public void undoSimulation(Board board, List<Piece> otherPieces, List<Piece> myPieces, Move thisMove) {
-        undoSimulation(board, otherPieces);
-    }
-
-    /**
-     * undo shotrified
-     * @param board
-     * @param otherPieces
-     */
-    public void undoSimulation(Board board, List<Piece> otherPieces) {
-        startField.setPieceSilently(piece);
-        piece.setFieldSilently(startField);
-        board.setEnPassantPiece(enPassant);
-        if (victim != null) {
-            victimField.setPieceSilently(victim);
-            victim.setFieldSilently(victimField);
-            otherPieces.add(victim);
-        } else {
-            field.removePieceSilently();
-        }
-    }
     /**
      * undoes promotional move
      * @param board to be reconfigured as promotional move has been undone
@@ -291,10 +235,6 @@ public class Move {
         return pgnNotation;
     }
 
-    public void savePassing(Piece piece) {
-        enPassant = piece;
-    }
-
     // ---------------------------------- GENERIC SETTERS AND GETTERS ----------------------------------
 
     public Piece getPiece() {
@@ -321,4 +261,19 @@ public class Move {
         this.rating += rating;
     }
 
+    /**
+     * @return move packed for the bitboard position
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * links move with its packed form
+     * @param code packed move, see {@link com.chess.engine.MoveCode}
+     */
+    public void setCode(int code) {
+        this.code = code;
+    }
+
 }
@@ -1,7 +1,5 @@
 package com.chess.root.moves;
 
-import java.util.List;
-
 import com.chess.root.Board;
 import com.chess.root.Field;
 import com.chess.root.pieces.Piece;
@@ -52,17 +50,4 @@ public class PassingMove extends Move {
         field.forceRemove();
     }
 
-    @Override
-    public void undoSimulation(Board board, List<Piece> otherPieces) {
-        startField.setPieceSilently(piece);
-        piece.setFieldSilently(startField);
-        board.setEnPassantPiece(enPassant);
-
-        victimField.setPieceSilently(victim);
-        victim.setFieldSilently(victimField);
-        otherPieces.add(victim);
-        field.removePieceSilently();
-
-    }
-
 }
@@ -1,6 +1,5 @@
 package com.chess.root.moves;
 
-import java.util.List;
 import com.chess.root.Board;
 import com.chess.root.Field;
 import com.chess.root.pieces.Piece;
@@ -16,10 +15,4 @@ public class PawnRunMove extends Move {
 		super.updateBoard(board, countdownReset);
 		board.setEnPassantPiece(piece);
 	}
-	
-	@Override
-	public void executeSimulation(Board board, List<Piece> otherPieces) {
-		super.executeSimulation(board, otherPieces);
-		board.setEnPassantPiece(piece);
-	}
 }
@@ -1,7 +1,5 @@
 package com.chess.root.moves;
 
-import java.util.List;
-
 import com.chess.root.Board;
 import com.chess.root.Field;
 import com.chess.root.pieces.Piece;
@@ -67,9 +65,8 @@ public class PromotionMove extends Move {
         startField.removePiece(false);
         super.startField.forceRemove();
         if (queen == null) {
-            this.setQueenReally(new QueenPiece(board, field, c, false));
+            this.setQueenReally(new QueenPiece(board, field, c));
         } else {
-            queen.createSymbol();
             board.addPiece(queen);
             field.setPiece(queen);
         }
@@ -100,35 +97,4 @@ public class PromotionMove extends Move {
         resetBoard(board);
     }
 
-    /**
-     * processes a move as with no graphical update happen
-     * @param board to be processed
-     * @param otherPieces list of pieces on board
-     * @param myPieces pieces of a player
-     * @param thisMove promotional move that to be silently happen
-     */
-    @Override
-    public void executeSimulation(Board board, List<Piece> otherPieces, List<Piece> myPieces, Move thisMove) {
-        super.executeSimulation(board, otherPieces);
-        Piece piece = thisMove.getPiece();
-        myPieces.remove(piece);
-        piece = new QueenPiece(board, thisMove.getField(), piece.getColor(), true);
-        queen = piece;
-        myPieces.add(piece);
-    }
-
-    /**
-     * undo a move as with no graphical update happen
-     * @param board to be processed
-     * @param otherPieces list of pieces on board
-     * @param myPieces pieces of a player
-     * @param thisMove promotional move that to be silently happen
-     */
-    @Override
-    public void undoSimulation(Board board, List<Piece> otherPieces, List<Piece> myPieces, Move thisMove) {
-        super.undoSimulation(board, otherPieces);
-        myPieces.remove(queen);
-        myPieces.add(thisMove.getPiece());
-    }
-
 }
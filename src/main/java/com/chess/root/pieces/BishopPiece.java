@@ -1,11 +1,7 @@
 package com.chess.root.pieces;
 
-import java.util.ArrayList;
-
-import com.chess.model.Direction;
 import com.chess.root.Board;
 import com.chess.root.Field;
-import com.chess.root.moves.Move;
 /**
  * bishop class
  */
@@ -13,7 +9,6 @@ public class BishopPiece extends Piece {
 
     private static final String name = "bishop";
     private static final String notation = "B";
-    private static final Direction[] dirs = {Direction.BOTTOM_LEFT, Direction.BOTTOM_RIGHT, Direction.TOP_RIGHT, Direction.TOP_LEFT};
     private static final int[][] BISHOP_UP = {
             {-20, -10, -10, -10, -10, -10, -10, -20},
             {-10, 0, 0, 0, 0, 0, 0, -10},
@@ -41,44 +36,16 @@ public class BishopPiece extends Piece {
      * @param color of a bishop that should be placed
      */
     public BishopPiece(Board board, Field field, boolean color) {
-        super(board, field, color, name, notation, board.getPieceValue().bishop(), !color ? BISHOP_UP : BISHOP_DOWN, false);
+        super(board, field, color, name, notation, board.getPieceValue().bishop());
     }
 
-
-    // ---------------------------------- ABSTRACT METHODS ----------------------------------
-
     /**
-     * calculate a list of possible moves for a bishop
-     * @return list of possible moves
+     * square table of a bishop
+     * @param color of a bishop
+     * @return square table in field layout
      */
-    @Override
-    public ArrayList<Move> getMoves() {
-        ArrayList<Move> moves = new ArrayList<>();
-
-        // find moves
-        for (Direction direction : dirs) {
-            int col = this.getField().getColumn();
-            int row = this.getField().getRow();
-            for (int i = 0; i < 8; i++) {
-                col += direction.col();
-                row += direction.row();
-                // check if next field coordinates are valid
-                if (col >= 0 && col < 8 && row >= 0 && row < 8) {
-                    Field next = board.getField(col, row);
-                    Piece victim = next.getPiece();
-                    // check if enemy piece is next
-                    if (victim != null) {
-                        if (victim.getColor() != this.getColor()) {
-                            moves.add(new Move(this, next, victim));
-                        }
-                        break;
-                    } else {
-                        moves.add(new Move(this, next, null));
-                    }
-                }
-            }
-        }
-        return moves;
+    public static int[][] getTable(boolean color) {
+        return !color ? BISHOP_UP : BISHOP_DOWN;
     }
 
 }
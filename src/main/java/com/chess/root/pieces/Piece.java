@@ -1,14 +1,7 @@
 package com.chess.root.pieces;
 
-import java.util.List;
-
-import com.chess.Loader;
 import com.chess.root.Board;
 import com.chess.root.Field;
-import com.chess.root.moves.Move;
-
-import javafx.scene.image.Image;
-import javafx.scene.image.ImageView;
 
 /**
  * abstract class for a figure
@@ -18,21 +11,16 @@ public abstract class Piece {
     protected Field field;
     private final String descriptiveName; // internal use only
     private final String notation;
-    private ImageView symbol;
-    private Image image;
     protected boolean color;
     protected int rating;
-    protected int posValue;
 
-    private static final int IMGSIZE = 60;
-    protected int[][] table;
     /**
      * abstract figure constructor
      * @param board where figure should be placed
      * @param field where figure should be placed
      * @param color of a figure that should be placed
      */
-    public Piece(Board board, Field field, boolean color, String name, String notation, int rating, int[][] table, boolean simulation) {
+    public Piece(Board board, Field field, boolean color, String name, String notation, int rating) {
         this.board = board;
         if (field == null) {
             throw new NullPointerException("no field set!");
@@ -42,12 +30,8 @@ public abstract class Piece {
         this.notation = notation;
         this.color = color;
         this.rating = rating;
-        this.table = table;
 
-        if (!simulation) {
-            createSymbol();
-            init();
-        }
+        init();
     }
 
     /**
@@ -69,7 +53,6 @@ public abstract class Piece {
             throw new NullPointerException("null value was set" + this);
         }
         this.field = field;
-        updatePos();
         board.endMove();
     }
 
@@ -79,11 +62,6 @@ public abstract class Piece {
      */
     public void setFieldSilently(Field field) {
         this.field = field;
-        updatePos();
-    }
-
-    private void updatePos() {
-        posValue = table[field.getRow()][field.getColumn()];
     }
 
     // ---------------------------------- GENERIC GETTERS AND SETTERS ----------------------------------
@@ -128,11 +106,10 @@ public abstract class Piece {
     }
 
     /**
-     * getter for a visual representation of a figure
-     * @return visual representation of a figure
+     * @return figure name, the gui picks the figure image by it
      */
-    public ImageView getSymbol() {
-        return symbol;
+    public String getName() {
+        return descriptiveName;
     }
 
     /**
@@ -155,13 +132,6 @@ public abstract class Piece {
         return rating;
     }
 
-    /**
-     * @return figure value
-     */
-    public int getValue() {
-        return rating + posValue;
-    }
-
     /**
      * @return if figure have moved
      */
@@ -188,34 +158,8 @@ public abstract class Piece {
         return false;
     }
 
-    /** tells figure that game have stopped
-     * @param end
-     */
-    public void setEndTable(boolean end) {
-
-    }
-
     // ---------------------------------- HELPER METHODS ----------------------------------
 
-    /**
-     * initilises visual representation
-     */
-    public void createSymbol() {
-        if (image == null || symbol == null) {
-            String path = "com/chess/resources/img/";
-            path += descriptiveName;
-            path += this.isBlack() ? "_b.png" : "_w.png";
-            final String filePath = path;
-            ImageView img = new ImageView(Loader.load(filePath).toString());
-            img.setFitWidth(IMGSIZE);
-            img.setFitHeight(IMGSIZE);
-            symbol = img;
-
-            double imgSize = IMGSIZE;
-            image = new Image(Loader.load(filePath).toString(), imgSize, imgSize, false, false);
-        }
-    }
-
     /**
      * @return figure as text
      */
@@ -254,12 +198,4 @@ public abstract class Piece {
         return hash;
     }
 
-    // ---------------------------------- ABSTRACT METHODS ----------------------------------
-
-    /**
-     * calculate possible moves for a figure
-     * @return possible moves for a figure
-     */
-    public abstract List<Move> getMoves();
-
 }
@@ -1,10 +1,7 @@
 package com.chess.root.pieces;
 
-import java.util.ArrayList;
-import com.chess.model.Direction;
 import com.chess.root.Board;
 import com.chess.root.Field;
-import com.chess.root.moves.Move;
 
 /**
  * Queen class
@@ -13,7 +10,6 @@ public class QueenPiece extends Piece {
 	
 	private static String name = "queen";
 	private static String notation = "Q";
-	private static Direction[] dirs = { Direction.BOTTOM_LEFT, Direction.BOTTOM_RIGHT, Direction.TOP_RIGHT, Direction.TOP_LEFT, Direction.TOP, Direction.BOTTOM, Direction.LEFT, Direction.RIGHT };
 	private static final int[][] QUEEN_UP = {
 			{-20,-10,-10,-5,-5,-10,-10,-20},
 			{-10,0,0,0,0,0,0,-10},
@@ -40,43 +36,17 @@ public class QueenPiece extends Piece {
 	 * @param field where queen should be placed
 	 * @param color of a queen that should be placed
 	 */
-	public QueenPiece(Board board, Field field, boolean color, boolean simulation) {
-		super(board, field, color, name, notation, board.getPieceValue().queen(), !color ? QUEEN_UP : QUEEN_DOWN, simulation);	
+	public QueenPiece(Board board, Field field, boolean color) {
+		super(board, field, color, name, notation, board.getPieceValue().queen());	
 	}
 	
-	// ---------------------------------- ABSTRACT METHODS ----------------------------------
 	/**
-	 * calculate a list of possible moves for a queen
-	 * @return list of possible moves
+	 * square table of a queen
+	 * @param color of a queen
+	 * @return square table in field layout
 	 */
-	@Override
-	public ArrayList<Move> getMoves() {
-		ArrayList<Move> moves = new ArrayList<>();
-		
-		// find moves
-		for (Direction direction : dirs) {
-			int col = this.getField().getColumn();
-			int row = this.getField().getRow();
-			for (int i = 0; i < 8; i++) {
-				col += direction.col();
-				row += direction.row();
-				// check if next field coordinates are valid
-				if (col >= 0 && col < 8 && row >= 0 && row < 8) {	
-					Field next = board.getField(col, row);
-					Piece victim = next.getPiece();
-					// check if enemy piece is next
-					if (victim != null) {
-						if (victim.getColor() != this.getColor()) {
-								moves.add(new Move(this, next, victim));
-						}
-						break;
-					} else {
-					moves.add(new Move(this, next, null));
-					}
-				}
-			}
-		}
-		return moves;
+	public static int[][] getTable(boolean color) {
+		return !color ? QUEEN_UP : QUEEN_DOWN;
 	}
 
 }
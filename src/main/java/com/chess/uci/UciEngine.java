@@ -0,0 +1,357 @@
+package com.chess.uci;
+
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.LazySmp;
+import com.chess.engine.MoveCode;
+import com.chess.engine.Position;
+import com.chess.engine.Search;
+import com.chess.engine.TranspositionTable;
+import com.chess.model.PieceValues;
+import com.chess.root.Board;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <a href="https://www.chessprogramming.org/UCI">UCI</a> front end, lets chess GUIs and tournament managers play
+ * against the engine search without the JavaFX board. Commands are read from standard input, the search runs on
+ * its own thread so {@code stop} and {@code ponderhit} are handled while it thinks.
+ */
+public final class UciEngine {
+
+    private static final Logger LOG = Logger.getLogger(String.class.getName());
+
+    private static final String NAME = "Chess";
+    private static final int DEFAULT_HASH = 64;
+    private static final int MAX_HASH = 4096;
+    private static final int MAX_THREADS = 256;
+    // moves the remaining time is spread over when the GUI does not send movestogo
+    private static final int MOVES_TO_GO = 30;
+    // time kept back for the GUI and the transfer of the move
+    private static final long MOVE_OVERHEAD = 50;
+
+    private final PrintStream out;
+    private final Evaluation evaluation = Board.createEvaluation(PieceValues.HARD);
+    private final Position position = new Position(evaluation);
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "uci-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private int hash = DEFAULT_HASH;
+    private int threads = 1;
+    private TranspositionTable table;
+    private LazySmp search;
+
+    private Thread searching;
+    private ScheduledFuture<?> stopTimer;
+    private long startTime;
+    private long startNodes;
+    private long budget;
+    // bestmove is held back while pondering or searching infinitely until stop or ponderhit arrives
+    private boolean holding;
+    private volatile boolean stopRequested;
+
+    public UciEngine(PrintStream out) {
+        this.out = out;
+        position.copyFrom(Fen.parse(Fen.START, evaluation));
+        createSearch();
+    }
+
+    public static void main(String[] args) throws IOException {
+        UciEngine engine = new UciEngine(new PrintStream(System.out, true, StandardCharsets.UTF_8));
+        engine.run(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * handles commands until quit or end of input
+     * @param in command source
+     * @throws IOException if reading fails
+     */
+    public void run(BufferedReader in) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (!handle(line.trim())) {
+                break;
+            }
+        }
+        stopSearch();
+        timer.shutdownNow();
+    }
+
+    /**
+     * @param command one line of input
+     * @return false if the engine should quit
+     */
+    boolean handle(String command) {
+        String[] tokens = command.split("\\s+");
+        try {
+            switch (tokens[0]) {
+                case "uci" -> {
+                    send("id name " + NAME);
+                    send("id author " + NAME + " contributors");
+                    send("option name Hash type spin default " + DEFAULT_HASH + " min 1 max " + MAX_HASH);
+                    send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                    send("option name Ponder type check default false");
+                    send("uciok");
+                }
+                case "isready" -> send("readyok");
+                case "ucinewgame" -> {
+                    stopSearch();
+                    table.clear();
+                }
+                case "setoption" -> {
+                    stopSearch();
+                    setOption(command);
+                }
+                case "position" -> {
+                    stopSearch();
+                    setPosition(tokens);
+                }
+                case "go" -> {
+                    stopSearch();
+                    go(tokens);
+                }
+                case "stop" -> stopSearch();
+                case "ponderhit" -> ponderHit();
+                case "quit" -> {
+                    return false;
+                }
+                default -> LOG.log(Level.FINE, "UCI: unknown command {0}", command);
+            }
+        } catch (IllegalArgumentException e) {
+            LOG.log(Level.WARNING, "UCI: invalid command {0}: {1}", new Object[]{command, e.getMessage()});
+        }
+        return true;
+    }
+
+    private void createSearch() {
+        table = new TranspositionTable(hash);
+        search = new LazySmp(position, table, threads);
+        search.setListener(this::sendInfo);
+    }
+
+    // ---------------------------------- COMMANDS ----------------------------------
+
+    private void setOption(String command) {
+        int name = command.indexOf(" name ");
+        int value = command.indexOf(" value ");
+        if (name < 0 || value < name) {
+            throw new IllegalArgumentException("missing name or value");
+        }
+        String option = command.substring(name + 6, value).trim();
+        String setting = command.substring(value + 7).trim();
+        if (option.equalsIgnoreCase("Hash")) {
+            hash = Math.max(1, Math.min(MAX_HASH, Integer.parseInt(setting)));
+            createSearch();
+        } else if (option.equalsIgnoreCase("Threads")) {
+            threads = Math.max(1, Math.min(MAX_THREADS, Integer.parseInt(setting)));
+            createSearch();
+        }
+    }
+
+    private void setPosition(String[] tokens) {
+        int i = 1;
+        String fen;
+        if (tokens.length > 1 && tokens[1].equals("startpos")) {
+            fen = Fen.START;
+            i = 2;
+        } else if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringBuilder builder = new StringBuilder();
+            for (i = 2; i < tokens.length && !tokens[i].equals("moves"); i++) {
+                builder.append(tokens[i]).append(' ');
+            }
+            fen = builder.toString();
+        } else {
+            throw new IllegalArgumentException("expected startpos or fen");
+        }
+        Position next = Fen.parse(fen, evaluation);
+        if (i < tokens.length && tokens[i].equals("moves")) {
+            int[] legal = new int[Position.MAX_MOVES];
+            for (i++; i < tokens.length; i++) {
+                int move = findMove(next, legal, tokens[i]);
+                if (move == MoveCode.NONE) {
+                    throw new IllegalArgumentException("illegal move " + tokens[i]);
+                }
+                next.makeMove(move);
+            }
+        }
+        position.copyFrom(next);
+    }
+
+    private static int findMove(Position position, int[] legal, String name) {
+        int count = position.generateLegalMoves(legal, 0);
+        for (int i = 0; i < count; i++) {
+            if (MoveCode.toString(legal[i]).equals(name)) {
+                return legal[i];
+            }
+        }
+        return MoveCode.NONE;
+    }
+
+    private void go(String[] tokens) {
+        int depth = Search.MAX_PLY - 1;
+        long nodes = Search.NO_LIMIT;
+        long moveTime = -1;
+        long time = -1;
+        long increment = 0;
+        int movesToGo = MOVES_TO_GO;
+        boolean infinite = false;
+        boolean ponder = false;
+        boolean white = position.getSideToMove() == Position.WHITE;
+        for (int i = 1; i < tokens.length; i++) {
+            String value = i + 1 < tokens.length ? tokens[i + 1] : "0";
+            switch (tokens[i]) {
+                case "depth" -> depth = Math.max(1, Integer.parseInt(value));
+                case "nodes" -> nodes = Math.max(1, Long.parseLong(value));
+                case "movetime" -> moveTime = Long.parseLong(value);
+                case "wtime" -> time = white ? Long.parseLong(value) : time;
+                case "btime" -> time = white ? time : Long.parseLong(value);
+                case "winc" -> increment = white ? Long.parseLong(value) : increment;
+                case "binc" -> increment = white ? increment : Long.parseLong(value);
+                case "movestogo" -> movesToGo = Math.max(1, Integer.parseInt(value));
+                case "infinite" -> infinite = true;
+                case "ponder" -> ponder = true;
+                default -> {
+                }
+            }
+        }
+        if (moveTime >= 0) {
+            budget = moveTime;
+        } else if (time >= 0) {
+            budget = Math.min(time / movesToGo + increment, time - MOVE_OVERHEAD);
+        } else {
+            budget = Search.NO_LIMIT;
+        }
+        budget = Math.max(1, budget);
+        holding = infinite || ponder;
+        stopRequested = false;
+        startTime = System.nanoTime();
+        startNodes = search.getNodes();
+        // a pondering search gets its time limit from ponderhit
+        long millis = holding ? Search.NO_LIMIT : budget;
+        int maxDepth = depth - 1;
+        long maxNodes = nodes;
+        searching = new Thread(() -> think(maxDepth, millis, maxNodes), "uci-search");
+        searching.start();
+    }
+
+    private void think(int maxDepth, long millis, long maxNodes) {
+        int[] moves = new int[Position.MAX_MOVES];
+        int count = position.generateLegalMoves(moves, 0);
+        int[] ratings = new int[count];
+        // mate or stalemate: nothing to search, bestmove still waits for stop or ponderhit
+        if (count > 0) {
+            search.rateMoves(moves, count, ratings, maxDepth, millis, maxNodes);
+        }
+        synchronized (this) {
+            while (holding) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (count == 0) {
+            send("bestmove 0000");
+            return;
+        }
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (ratings[i] > ratings[best]) {
+                best = i;
+            }
+        }
+        int[] line = search.getPrincipalVariation(moves[best], 2);
+        send("bestmove " + MoveCode.toString(moves[best]) + (line.length > 1 ? " ponder " + MoveCode.toString(line[1]) : ""));
+    }
+
+    /**
+     * makes a running search return its best move and waits until it did
+     */
+    private void stopSearch() {
+        if (searching == null) {
+            return;
+        }
+        stopRequested = true;
+        search.stop();
+        release();
+        try {
+            searching.join();
+        } catch (InterruptedException e) {
+            LOG.log(Level.SEVERE, e.getMessage());
+            Thread.currentThread().interrupt();
+        }
+        searching = null;
+        if (stopTimer != null) {
+            stopTimer.cancel(false);
+            stopTimer = null;
+        }
+    }
+
+    /**
+     * the opponent played the expected move, the pondering search goes on under normal time control
+     */
+    private void ponderHit() {
+        if (searching == null) {
+            return;
+        }
+        startTime = System.nanoTime();
+        if (budget != Search.NO_LIMIT) {
+            stopTimer = timer.schedule(() -> {
+                stopRequested = true;
+                search.stop();
+            }, budget, TimeUnit.MILLISECONDS);
+        }
+        release();
+    }
+
+    private synchronized void release() {
+        holding = false;
+        notifyAll();
+    }
+
+    // ---------------------------------- OUTPUT ----------------------------------
+
+    private void sendInfo(int depth, int bestMove, int rating, long totalNodes) {
+        // a stop that came before the search started must still end it
+        if (stopRequested) {
+            search.stop();
+        }
+        long millis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000L);
+        long nodes = totalNodes - startNodes;
+        StringBuilder info = new StringBuilder("info depth ").append(depth + 1).append(" score ");
+        if (rating > Search.MATE - Search.MAX_PLY) {
+            info.append("mate ").append((Search.MATE - rating + 1) / 2);
+        } else if (rating < -Search.MATE + Search.MAX_PLY) {
+            info.append("mate ").append(-(Search.MATE + rating) / 2);
+        } else {
+            info.append("cp ").append(rating * 100L / evaluation.value(Position.PAWN));
+        }
+        info.append(" nodes ").append(nodes)
+                .append(" nps ").append(nodes * 1000 / millis)
+                .append(" time ").append(millis)
+                .append(" pv");
+        for (int move : search.getPrincipalVariation(bestMove, Math.min(depth + 1, Search.MAX_PLY))) {
+            info.append(' ').append(MoveCode.toString(move));
+        }
+        send(info.toString());
+    }
+
+    private synchronized void send(String line) {
+        out.println(line);
+    }
+
+}
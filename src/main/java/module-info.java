@@ -8,5 +8,12 @@ module com.chess {
 
     opens com.chess.application to javafx.fxml;
     exports com.chess.application;
+    exports com.chess.engine;
+    exports com.chess.model;
+    exports com.chess.pgn;
+    exports com.chess.root;
+    exports com.chess.root.moves;
+    exports com.chess.root.pieces;
+    exports com.chess.uci;
 }
 
@@ -0,0 +1,89 @@
+package com.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class FenTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            Fen.START,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+            "rnbqkbnr/pppp1ppp/8/8/3Pp3/8/PPP1PPPP/RNBQKBNR b Kk d3 0 3",
+            "8/8/8/8/8/8/8/k6K b - - 99 120"
+    })
+    void roundTrip(String fen) {
+        assertEquals(fen, Fen.format(Fen.parse(fen, new Evaluation())));
+    }
+
+    @Test
+    void countersMayBeLeftOut() {
+        Position position = Fen.parse("4k3/8/8/8/8/8/8/4K3 b - -", new Evaluation());
+        assertEquals(Position.BLACK, position.getSideToMove());
+        assertEquals("4k3/8/8/8/8/8/8/4K3 b - - 0 1", Fen.format(position));
+    }
+
+    @Test
+    void enPassantSquareWithoutCaptureIsKeptButNotKeyed() {
+        // legal double push nobody can answer en passant
+        Position position = Fen.parse("4k3/8/8/8/4P3/8/8/4K3 b - e3 0 1", new Evaluation());
+        assertEquals(Zobrist.compute(position), position.getKey());
+        assertEquals(5, position.generateLegalMoves(new int[Position.MAX_MOVES], 0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            // incomplete
+            "4k3/8/8/8/8/8/8/4K3 w",
+            // unknown piece
+            "4k3/8/8/8/8/8/8/4X3 w - - 0 1",
+            // rank of 7 and of 9 files
+            "4k3/8/8/8/7/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/36/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/p7p/8/8/4K3 w - - 0 1",
+            // 7 and 9 ranks
+            "4k3/8/8/8/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/8/8/8/8/4K3 w - - 0 1",
+            // kings missing or doubled
+            "8/8/8/8/8/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/8/8/8/8 w - - 0 1",
+            "4k3/8/8/8/8/8/8/3KK3 w - - 0 1",
+            // pawns on the back ranks
+            "P3k3/8/8/8/8/8/8/4K3 w - - 0 1",
+            "4k3/8/8/8/8/8/8/p3K3 b - - 0 1",
+            // side to move and castling rights
+            "4k3/8/8/8/8/8/8/4K3 x - - 0 1",
+            "4k3/8/8/8/8/8/8/4K3 W - - 0 1",
+            "r3k2r/8/8/8/8/8/8/R3K2R w KQkx - 0 1",
+            "r3k2r/8/8/8/8/8/8/R3K2R w K-q - 0 1",
+            // black in check with white to move
+            "4k3/8/8/8/8/8/8/4R1K1 w - - 0 1",
+            // en passant square on a wrong rank, without the pawn that skipped it, or occupied
+            "4k3/8/8/3P4/8/8/8/4K3 w - e6 0 1",
+            "4k3/8/8/3Pp3/8/8/8/4K3 w - e3 0 1",
+            "4k3/8/8/3Pp3/8/8/8/4K3 b - e6 0 1",
+            "4k3/8/4n3/3Pp3/8/8/8/4K3 w - e6 0 1",
+            "4k3/4n3/8/3Pp3/8/8/8/4K3 w - e6 0 1",
+            "4k3/8/8/3P4/8/8/8/4K3 w - e9 0 1",
+            // counters
+            "4k3/8/8/8/8/8/8/4K3 w - - x 1"
+    })
+    void rejectsInvalidPosition(String fen) {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen, new Evaluation()));
+    }
+
+    @Test
+    void acceptsEnPassantWithEnemyPawnBehind() {
+        Position position = Fen.parse("4k3/8/8/3Pp3/8/8/8/4K3 w - e6 0 1", new Evaluation());
+        assertEquals(Fen.parseSquare("e6"), position.getEnPassantSquare());
+        assertEquals(5 + 2, position.generateLegalMoves(new int[Position.MAX_MOVES], 0));
+    }
+
+}
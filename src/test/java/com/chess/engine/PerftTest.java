@@ -0,0 +1,38 @@
+package com.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * checks move generation against the standard perft positions, see
+ * <a href="https://www.chessprogramming.org/Perft_Results">Perft Results</a>
+ */
+class PerftTest {
+
+    static Stream<Arguments> positions() {
+        return Stream.of(
+                Arguments.of(Fen.START, new long[]{20, 400, 8902, 197281, 4865609}),
+                Arguments.of("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", new long[]{48, 2039, 97862, 4085603}),
+                Arguments.of("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", new long[]{14, 191, 2812, 43238, 674624}),
+                Arguments.of("r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", new long[]{6, 264, 9467, 422333}),
+                Arguments.of("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", new long[]{44, 1486, 62379, 2103487}),
+                Arguments.of("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", new long[]{46, 2079, 89890, 3894594}));
+    }
+
+    @ParameterizedTest
+    @MethodSource("positions")
+    void countsLeafNodes(String fen, long[] expected) {
+        Position position = Fen.parse(fen, new Evaluation());
+        Perft perft = new Perft(position);
+        for (int depth = 1; depth <= expected.length; depth++) {
+            assertEquals(expected[depth - 1], perft.count(depth), "depth " + depth + " of " + fen);
+        }
+        assertEquals(fen, Fen.format(position), "position not restored");
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import com.chess.pgn.PgnReader;
+import com.chess.pgn.PolyglotBookBuilder;
+
+class PolyglotBookTest {
+
+    @TempDir
+    Path dir;
+
+    /**
+     * keys from the Polyglot format description
+     */
+    @ParameterizedTest
+    @CsvSource({
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1, 463b96181691fc9c",
+            "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1, 823c9b50fd114196",
+            "rnbqkbnr/ppp1pppp/8/3p4/4P3/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 2, 0756b94461c50fb0",
+            "rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR b KQkq - 0 2, 662fafb965db29d4",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3, 22a48b5a8e47ff78",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR b kq - 0 3, 652a607ca3f242c1",
+            "rnbq1bnr/ppp1pkpp/8/3pPp2/8/8/PPPPKPPP/RNBQ1BNR w - - 0 4, 00fdd303c946bdd9",
+            "rnbqkbnr/p1pppppp/8/8/PpP4P/8/1P1PPPP1/RNBQKBNR b KQkq c3 0 3, 3c8123ea7b067637",
+            "rnbqkbnr/p1pppppp/8/8/P6P/2p5/RP1PPPP1/1NBQKBNR b Kkq - 0 4, 5c3f9b829b279560"
+    })
+    void keysMatchReferenceVectors(String fen, String key) {
+        assertEquals(Long.parseUnsignedLong(key, 16), PolyglotBook.key(Fen.parse(fen, new Evaluation())));
+    }
+
+    @Test
+    void picksMovesOfBuiltBook() throws IOException {
+        PolyglotBookBuilder builder = new PolyglotBookBuilder(2, 1);
+        builder.add(PgnReader.parse("1. e4 e5 *"));
+        builder.add(PgnReader.parse("1. e4 c5 *"));
+        Path file = dir.resolve("book.bin");
+        builder.write(file);
+
+        PolyglotBook book = PolyglotBook.open(file);
+        Position position = Fen.parse(Fen.START, new Evaluation());
+        assertEquals(1, book.count(position));
+        assertEquals("e2e4", MoveCode.toString(book.pick(position, new SplittableRandom(1))));
+        position = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1", new Evaluation());
+        assertEquals(2, book.count(position));
+        position = Fen.parse("rnbqkbnr/pppp1ppp/8/4p3/4P3/8/PPPP1PPP/RNBQKBNR w KQkq - 0 2", new Evaluation());
+        assertEquals(MoveCode.NONE, book.pick(position, new SplittableRandom(1)));
+    }
+
+    @Test
+    void encodesCastlingAsKingTakesRook() {
+        Position position = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1", new Evaluation());
+        int[] legal = new int[Position.MAX_MOVES];
+        // e1h1: from file 4 rank 0, to file 7 rank 0
+        assertEquals(4 << 6 | 7, PolyglotBook.encode(San.find(position, "O-O", legal)));
+        assertEquals(4 << 6, PolyglotBook.encode(San.find(position, "O-O-O", legal)));
+        assertEquals(6 << 9 | 4 << 6 | 7 << 3 | 4 | Position.QUEEN << 12,
+                PolyglotBook.encode(San.find(Fen.parse("8/4P3/8/8/8/8/k7/4K3 w - - 0 1", new Evaluation()), "e8=Q", legal)));
+    }
+
+}
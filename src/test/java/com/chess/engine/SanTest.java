@@ -0,0 +1,120 @@
+package com.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SanTest {
+
+    private static final String KNIGHTS = "4k3/8/8/8/8/2N5/8/4K1N1 w - - 0 1";
+    private static final String ROOKS = "4k3/8/8/R7/8/8/8/R6K w - - 0 1";
+    private static final String PROMOTION = "r3k3/1P6/8/8/8/8/8/4K3 w - - 0 1";
+    private static final String CASTLING = "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1";
+
+    private final int[] legal = new int[Position.MAX_MOVES];
+
+    private String find(String fen, String san) {
+        int move = San.find(Fen.parse(fen, new Evaluation()), san, legal);
+        if (move == San.AMBIGUOUS) {
+            return "ambiguous";
+        }
+        return move == MoveCode.NONE ? "none" : MoveCode.toString(move);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // disambiguation by file, rank and square, superfluous disambiguation tolerated
+            KNIGHTS + ", Ne2, ambiguous",
+            KNIGHTS + ", Nce2, c3e2",
+            KNIGHTS + ", Nge2, g1e2",
+            KNIGHTS + ", Ng1e2, g1e2",
+            KNIGHTS + ", Nf3, g1f3",
+            KNIGHTS + ", Ngf3, g1f3",
+            ROOKS + ", Ra3, ambiguous",
+            ROOKS + ", R1a3, a1a3",
+            ROOKS + ", R5a3, a5a3",
+            ROOKS + ", Ra5a3, a5a3",
+            // a pinned knight doesn't count
+            "4k3/8/8/b7/8/2N5/8/4K1N1 w - - 0 1, Ne2, g1e2",
+            "4k3/8/8/b7/8/2N5/8/4K1N1 w - - 0 1, Nb5, none",
+            // promotions, a missing piece promotes to a queen
+            PROMOTION + ", b8=Q, b7b8q",
+            PROMOTION + ", b8Q+, b7b8q",
+            PROMOTION + ", b8=N, b7b8n",
+            PROMOTION + ", b8, b7b8q",
+            PROMOTION + ", bxa8=R, b7a8r",
+            PROMOTION + ", bxa8B, b7a8b",
+            PROMOTION + ", b7a8=Q, b7a8q",
+            // castling with letters or zeros, pawn moves, en passant and annotations
+            CASTLING + ", O-O, e1g1",
+            CASTLING + ", 0-0-0, e1c1",
+            CASTLING + ", O-O-O+, e1c1",
+            Fen.START + ", e4, e2e4",
+            Fen.START + ", Nf3!?, g1f3",
+            Fen.START + ", e5, none",
+            Fen.START + ", O-O, none",
+            "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1, exd6, e5d6",
+            "4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1, e5xd6, e5d6"
+    })
+    void findsLegalMove(String fen, String san, String expected) {
+        assertEquals(expected, find(fen, san));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "+", "Zf3", "e9", "i4", "Nf", "O-O-O-O", "1-0", "e8=K", "e8=", "Qxx"})
+    void rejectsNonMoves(String san) {
+        assertEquals(San.INVALID, San.decode(san));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"Ne2, 2", "Nce2, 1", "N1e2, 1", "Nd5, 1", "Nxe2, 2", "Ke2, 1", "e2, 0", "Nc3e2, 1"})
+    void decodedSpecMatchesCandidates(String san, int expected) {
+        int spec = San.decode(san);
+        int n = Fen.parse(KNIGHTS, new Evaluation()).generateLegalMoves(legal, 0);
+        int matching = 0;
+        for (int i = 0; i < n; i++) {
+            if (San.matches(spec, legal[i])) {
+                matching++;
+            }
+        }
+        assertEquals(expected, matching);
+    }
+
+    @Test
+    void formatsDisambiguationAndChecks() {
+        Position knights = Fen.parse(KNIGHTS, new Evaluation());
+        assertEquals("Nce2", San.format(knights, San.find(knights, "Nce2", legal)));
+        assertEquals("Nf3", San.format(knights, San.find(knights, "Nf3", legal)));
+        Position rooks = Fen.parse(ROOKS, new Evaluation());
+        assertEquals("R1a3", San.format(rooks, San.find(rooks, "R1a3", legal)));
+        Position promotion = Fen.parse(PROMOTION, new Evaluation());
+        assertEquals("b8=Q+", San.format(promotion, San.find(promotion, "b8=Q", legal)));
+        assertEquals("bxa8=N", San.format(promotion, San.find(promotion, "bxa8=N", legal)));
+        Position castling = Fen.parse(CASTLING, new Evaluation());
+        assertEquals("O-O-O", San.format(castling, San.find(castling, "O-O-O", legal)));
+        Position mate = Fen.parse("r1bqkbnr/pppp1ppp/2n5/4p3/2B1P3/5Q2/PPPP1PPP/RNB1K1NR w KQkq - 0 1", new Evaluation());
+        assertEquals("Qxf7#", San.format(mate, San.find(mate, "Qxf7", legal)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            Fen.START,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+            KNIGHTS, ROOKS, PROMOTION
+    })
+    void formattedMovesAreFoundAgain(String fen) {
+        Position position = Fen.parse(fen, new Evaluation());
+        int[] moves = new int[Position.MAX_MOVES];
+        int n = position.generateLegalMoves(moves, 0);
+        for (int i = 0; i < n; i++) {
+            String san = San.format(position, moves[i]);
+            assertEquals(moves[i], San.find(position, san, legal), san);
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.chess.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * the key a position updates on make and unmake has to match the key computed from scratch
+ */
+class ZobristTest {
+
+    private static final int DEPTH = 3;
+
+    private final int[][] buffers = new int[DEPTH][Position.MAX_MOVES];
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            Fen.START,
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3"
+    })
+    void incrementalKeyMatchesRecompute(String fen) {
+        Position position = Fen.parse(fen, new Evaluation());
+        assertEquals(Zobrist.compute(position), position.getKey(), "parsed " + fen);
+        walk(position, DEPTH, 0);
+        assertEquals(Zobrist.compute(position), position.getKey(), "restored " + fen);
+    }
+
+    private void walk(Position position, int depth, int ply) {
+        int[] moves = buffers[ply];
+        int n = position.generateLegalMoves(moves, 0);
+        for (int i = 0; i < n; i++) {
+            int move = moves[i];
+            long before = position.getKey();
+            position.makeMove(move);
+            assertEquals(Zobrist.compute(position), position.getKey(), () -> "after " + MoveCode.toString(move) + " in " + Fen.format(position));
+            if (depth > 1) {
+                walk(position, depth - 1, ply + 1);
+            }
+            position.unmakeMove();
+            assertEquals(before, position.getKey(), () -> "after unmaking " + MoveCode.toString(move));
+        }
+    }
+
+    @Test
+    void transpositionsShareKey() {
+        Position a = Fen.parse(Fen.START, new Evaluation());
+        Position b = Fen.parse(Fen.START, new Evaluation());
+        play(a, "g1f3", "g8f6", "b1c3");
+        play(b, "b1c3", "g8f6", "g1f3");
+        assertEquals(a.getKey(), b.getKey());
+    }
+
+    @Test
+    void enPassantFileCountsOnlyWhenCapturable() {
+        // the double push can't be answered en passant, so the position equals the one reached by a single push
+        Position doublePush = Fen.parse("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1", new Evaluation());
+        play(doublePush, "e2e4");
+        Position quiet = Fen.parse("4k3/8/8/8/4P3/8/8/4K3 b - - 0 1", new Evaluation());
+        assertEquals(quiet.getKey(), doublePush.getKey());
+
+        Position capturable = Fen.parse("4k3/8/8/8/5p2/8/4P3/4K3 w - - 0 1", new Evaluation());
+        play(capturable, "e2e4");
+        Position same = Fen.parse("4k3/8/8/8/4Pp2/8/8/4K3 b - - 0 1", new Evaluation());
+        assertNotEquals(same.getKey(), capturable.getKey());
+        assertEquals(Zobrist.compute(capturable), capturable.getKey());
+    }
+
+    private static void play(Position position, String... moves) {
+        int[] legal = new int[Position.MAX_MOVES];
+        for (String move : moves) {
+            int n = position.generateLegalMoves(legal, 0);
+            int found = MoveCode.NONE;
+            for (int i = 0; i < n; i++) {
+                if (MoveCode.toString(legal[i]).equals(move)) {
+                    found = legal[i];
+                }
+            }
+            assertNotEquals(MoveCode.NONE, found, move);
+            position.makeMove(found);
+        }
+    }
+
+}
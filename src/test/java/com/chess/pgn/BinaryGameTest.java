@@ -0,0 +1,104 @@
+package com.chess.pgn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.chess.engine.Evaluation;
+import com.chess.engine.Fen;
+import com.chess.engine.MoveCode;
+import com.chess.engine.Position;
+import com.chess.engine.San;
+
+class BinaryGameTest {
+
+    private static final List<String> GAMES = List.of(
+            "[Event \"Scholar\"]\n[White \"A\"]\n[Black \"B\"]\n\n"
+                    + "{start} 1. e4 e5 2. Bc4 $1 Nc6 (2... Nf6 3. d3) 3. Qh5 Nf6?? {blunder} 4. Qxf7# 1-0",
+            // disambiguation, castling both ways, en passant, promotion with check, unfinished
+            "[FEN \"r3k2r/P7/8/3pP3/8/8/8/R3K1NR w KQkq d6 0 1\"]\n\n"
+                    + "1. exd6 O-O-O 2. Ne2 Rxd6 3. O-O Rd2 4. Nc3 Rd1 5. Rfxd1 Kb7 6. a8=Q+ Kb6 *",
+            "[Event \"No moves\"]\n\n{only a comment} 1/2-1/2",
+            "1. Nf3 Nf6 2. Ng1 Ng8 3. Nc3 Nc6 4. Nb1 Nb8 5. d4");
+
+    private static byte[] write(List<String> pgns) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryGameWriter writer = new BinaryGameWriter(bytes)) {
+            for (String pgn : pgns) {
+                writer.write(PgnReader.parse(pgn));
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    @Test
+    void readsWrittenGames() throws IOException {
+        byte[] bytes = write(GAMES);
+        try (BinaryGameReader reader = new BinaryGameReader(new ByteArrayInputStream(bytes))) {
+            for (String pgn : GAMES) {
+                PgnGame expected = PgnReader.parse(pgn);
+                PgnGame game = reader.next();
+                assertEquals(expected.toPgn(), game.toPgn());
+                assertEquals(expected.getTags(), game.getTags());
+                assertEquals(expected.getResult(), game.getResult());
+            }
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readsMovesWithoutSan() throws IOException {
+        byte[] bytes = write(GAMES);
+        try (BinaryGameReader reader = new BinaryGameReader(new ByteArrayInputStream(bytes))) {
+            for (String pgn : GAMES) {
+                PgnGame game = PgnReader.parse(pgn);
+                String fen = game.getTag("FEN");
+                Position position = Fen.parse(fen == null ? Fen.START : fen, new Evaluation());
+                int[] legal = new int[Position.MAX_MOVES];
+                int[] moves = reader.nextMoves();
+                assertEquals(game.getPlyCount(), moves.length);
+                for (int ply = 0; ply < moves.length; ply++) {
+                    int move = San.find(position, game.getMoves().get(ply), legal);
+                    assertEquals(MoveCode.toString(move), MoveCode.toString(moves[ply]));
+                    position.makeMove(move);
+                }
+            }
+            assertNull(reader.nextMoves());
+        }
+    }
+
+    @Test
+    void rejectsIllegalMoveWithoutWriting() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (BinaryGameWriter writer = new BinaryGameWriter(bytes)) {
+            int header = bytes.size();
+            assertThrows(IllegalArgumentException.class, () -> writer.write(PgnReader.parse("1. e4 e4 *")));
+            assertThrows(IllegalArgumentException.class, () -> writer.write(PgnReader.parse(
+                    "[FEN \"4k3/8/8/8/8/2N5/8/4K1N1 w - - 0 1\"]\n\n1. Ne2 *")));
+            assertEquals(header, bytes.size());
+        }
+    }
+
+    @Test
+    void rejectsCorruptMoveIndex() throws IOException {
+        byte[] bytes = write(List.of("1. e4 *"));
+        // the move index is the last but one byte, before the empty annotation count
+        bytes[bytes.length - 2] = (byte) 20;
+        try (BinaryGameReader reader = new BinaryGameReader(new ByteArrayInputStream(bytes))) {
+            assertThrows(IOException.class, reader::next);
+        }
+    }
+
+    @Test
+    void rejectsOtherFiles() {
+        assertThrows(IOException.class, () -> new BinaryGameReader(new ByteArrayInputStream("[Event".getBytes())));
+    }
+
+}
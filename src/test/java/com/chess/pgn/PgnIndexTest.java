@@ -0,0 +1,110 @@
+package com.chess.pgn;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PgnIndexTest {
+
+    @TempDir
+    Path dir;
+
+    private static String game(String white, String black, String result, String moves) {
+        return "[Event \"Test\"]\n[White \"" + white + "\"]\n[Black \"" + black + "\"]\n[Result \"" + result + "\"]\n\n"
+                + moves + " " + result + "\n\n";
+    }
+
+    private Path write(String text) throws IOException {
+        Path file = dir.resolve("games.pgn");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static void append(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void indexesTagsAndPlyCounts() throws IOException {
+        Path file = write(game("A", "B", "1-0", "1. e4 e5 2. Nf3") + game("C", "D", "1/2-1/2", "1. d4"));
+        try (PgnIndex index = PgnIndex.open(file)) {
+            assertEquals(2, index.size());
+            assertArrayEquals(new String[]{"A", "B", "1-0", "", "Test"}, index.getTags(0));
+            assertEquals("D", index.getTag(1, "Black"));
+            assertEquals(3, index.getPlyCount(0));
+            assertEquals(1, index.getPlyCount(1));
+            assertEquals(List.of("d4"), index.getGame(1).getMoves());
+        }
+    }
+
+    @Test
+    void readsOnlyAppendedGames() throws IOException {
+        Path file = write(game("A", "B", "1-0", "1. e4") + game("C", "D", "0-1", "1. d4"));
+        long[] offsets;
+        try (PgnIndex index = PgnIndex.open(file)) {
+            offsets = new long[]{index.getOffset(0), index.getOffset(1)};
+        }
+        byte[] records = Files.readAllBytes(dir.resolve("games.pgn.idx"));
+
+        append(file, game("E", "F", "1-0", "1. c4") + game("G", "H", "*", "1. Nf3 d5"));
+        try (PgnIndex index = PgnIndex.open(file)) {
+            assertEquals(4, index.size());
+            assertEquals(offsets[0], index.getOffset(0));
+            assertEquals(offsets[1], index.getOffset(1));
+            assertEquals("G", index.getTag(3, "White"));
+            assertEquals(List.of("Nf3", "d5"), index.getGame(3).getMoves());
+            // updated incrementally: records of the first games are still in place behind the rewritten header
+            byte[] grown = Files.readAllBytes(dir.resolve("games.pgn.idx"));
+            assertArrayEquals(Arrays.copyOfRange(records, 32, records.length), Arrays.copyOfRange(grown, 32, records.length));
+
+            append(file, game("I", "J", "0-1", "1. b3"));
+            assertEquals(1, index.update());
+            assertEquals(5, index.size());
+            assertEquals("J", index.getTag(4, "Black"));
+        }
+    }
+
+    @Test
+    void rereadsUnfinishedLastGame() throws IOException {
+        Path file = write(game("A", "B", "1-0", "1. e4") + "[White \"C\"]\n\n1. d4 d5");
+        try (PgnIndex index = PgnIndex.open(file)) {
+            assertEquals(2, index.size());
+            assertEquals(2, index.getPlyCount(1));
+
+            append(file, " 2. c4 1-0\n");
+            assertEquals(0, index.update());
+            assertEquals(2, index.size());
+            assertEquals(3, index.getPlyCount(1));
+            assertEquals("1-0", index.getTag(1, "Result"));
+        }
+    }
+
+    @Test
+    void rebuildsWhenIndexedBytesChange() throws IOException {
+        Path file = write(game("A", "B", "1-0", "1. e4") + game("C", "D", "0-1", "1. d4"));
+        try (PgnIndex index = PgnIndex.open(file)) {
+            assertEquals(2, index.size());
+        }
+        write(game("X", "B", "1-0", "1. e4") + game("C", "D", "0-1", "1. d4") + game("E", "F", "*", "1. c4"));
+        try (PgnIndex index = PgnIndex.open(file)) {
+            assertEquals(3, index.size());
+            assertEquals("X", index.getTag(0, "White"));
+        }
+        write(game("Y", "Z", "1-0", "1. e4"));
+        try (PgnIndex index = PgnIndex.open(file)) {
+            assertEquals(1, index.size());
+            assertEquals("Z", index.getTag(0, "Black"));
+        }
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.chess.pgn;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PgnReaderTest {
+
+    @Test
+    void readsTagsMovesAndResult() {
+        PgnGame game = PgnReader.parse("[Event \"Casual \\\"blitz\\\"\"]\n[White \"Doe, Jane\"]\n\n1. e4 e5 2. Nf3 0-0 1-0\n");
+        assertEquals("Casual \"blitz\"", game.getTag("Event"));
+        assertEquals("Doe, Jane", game.getTag("White"));
+        assertEquals(List.of("e4", "e5", "Nf3", "O-O"), game.getMoves());
+        assertEquals("1-0", game.getResult());
+    }
+
+    @Test
+    void readsCommentsByPly() {
+        PgnGame game = PgnReader.parse("{before} 1. e4 {brace comment} e5 ; rest of line\n2. Nf3 {first} {second} *");
+        assertEquals("before", game.getComment(0));
+        assertEquals("brace comment", game.getComment(1));
+        assertEquals("rest of line", game.getComment(2));
+        assertEquals("first second", game.getComment(3));
+    }
+
+    @Test
+    void readsNestedVariations() {
+        PgnGame game = PgnReader.parse("1. e4 e5 (1... c5 2. Nf3 (2. c3 {Alapin}) d6) (1... e6) 2. Nf3 *");
+        assertEquals(List.of("e4", "e5", "Nf3"), game.getMoves());
+        assertEquals(List.of("1... c5 2. Nf3 (2. c3 {Alapin}) d6", "1... e6"), game.getVariations(1));
+        assertTrue(game.getVariations(0).isEmpty());
+    }
+
+    @Test
+    void parenthesesInCommentsDontEndVariations() {
+        PgnGame game = PgnReader.parse("1. d4 (1. e4 {a :) smile} e5) d5 *");
+        assertEquals(List.of("d4", "d5"), game.getMoves());
+        assertEquals(List.of("1. e4 {a :) smile} e5"), game.getVariations(0));
+    }
+
+    @Test
+    void readsNumericAndSuffixAnnotations() {
+        PgnGame game = PgnReader.parse("1. e4 $1 $14 e5?! 2. Qh5!! Nc6?? 3. Qxf7# 1-0");
+        assertEquals(List.of("e4", "e5", "Qh5", "Nc6", "Qxf7#"), game.getMoves());
+        assertEquals(List.of(1, 14), game.getNags(0));
+        assertEquals(List.of(6), game.getNags(1));
+        assertEquals(List.of(3), game.getNags(2));
+        assertEquals(List.of(4), game.getNags(3));
+        assertTrue(game.getNags(4).isEmpty());
+    }
+
+    @Test
+    void escapesOnlyLinesStartingWithPercent() {
+        PgnGame game = PgnReader.parse("% generated file\n[Event \"x\"]\n\n1. e4 e5\n%2. d4 d5\n2. Nf3 % Nc6\n3. Bb5 *");
+        assertEquals("x", game.getTag("Event"));
+        // the escaped line is skipped, a percent sign within a line is not an escape
+        assertEquals(List.of("e4", "e5", "Nf3", "Nc6", "Bb5"), game.getMoves());
+    }
+
+    @Test
+    void readsGamesOneAfterAnother() throws IOException {
+        String first = "[Event \"a\"]\n\n1. e4 e5 1/2-1/2\n\n";
+        String second = "[Event \"b\"]\n\n1. d4 *\n";
+        byte[] bytes = (first + second).getBytes(StandardCharsets.UTF_8);
+        PgnReader reader = new PgnReader(ByteBuffer.wrap(bytes), StandardCharsets.UTF_8, 0);
+        PgnGame a = reader.next();
+        PgnGame b = reader.next();
+        assertNull(reader.next());
+        assertEquals("a", a.getTag("Event"));
+        assertEquals("1/2-1/2", a.getResult());
+        assertEquals(0, a.getOffset());
+        assertEquals(first.length(), a.getLength());
+        assertEquals("b", b.getTag("Event"));
+        assertEquals(first.length(), b.getOffset());
+        assertEquals(List.of("d4"), b.getMoves());
+    }
+
+    @Test
+    void gameWithoutTerminationEndsAtNextTags() throws IOException {
+        byte[] bytes = "[Event \"a\"]\n1. e4\n[Event \"b\"]\n1. d4 *".getBytes(StandardCharsets.UTF_8);
+        PgnReader reader = new PgnReader(ByteBuffer.wrap(bytes), StandardCharsets.UTF_8, 0);
+        assertEquals(List.of("e4"), reader.next().getMoves());
+        assertEquals(List.of("d4"), reader.next().getMoves());
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.chess.uci;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class UciEngineTest {
+
+    /**
+     * @return lines sent by the engine until its bestmove, at most ten seconds
+     */
+    private static List<String> run(String... commands) throws IOException, InterruptedException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        UciEngine engine = new UciEngine(new PrintStream(bytes, true, StandardCharsets.UTF_8));
+        for (String command : commands) {
+            engine.handle(command);
+        }
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!bytes.toString(StandardCharsets.UTF_8).contains("bestmove") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        engine.run(new BufferedReader(new StringReader("quit")));
+        return bytes.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private static String bestMove(List<String> lines) {
+        List<String> replies = lines.stream().filter(line -> line.startsWith("bestmove")).toList();
+        assertEquals(1, replies.size(), lines.toString());
+        return replies.get(0).split(" ")[1];
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // mated, stalemated
+            "7k/6Q1/6K1/8/8/8/8/8 b - - 0 1, 0000",
+            "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1, 0000",
+            // mate in one
+            "7k/8/6K1/8/8/8/8/1Q6 w - - 0 1, b1b8"
+    })
+    void answersSearchWithBestMove(String fen, String expected) throws IOException, InterruptedException {
+        assertEquals(expected, bestMove(run("position fen " + fen, "go depth 3")));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "7k/6Q1/6K1/8/8/8/8/8 b - - 0 1",
+            "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1"
+    })
+    void holdsBackBestMoveWithoutMovesUntilStop(String fen) throws IOException, InterruptedException {
+        List<String> lines = run("position fen " + fen, "go infinite", "isready", "stop");
+        assertTrue(lines.indexOf("readyok") < lines.indexOf("bestmove 0000"), lines.toString());
+    }
+
+}